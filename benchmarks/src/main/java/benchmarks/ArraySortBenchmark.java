@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// The O(n log n) SortEngine algorithms from 1K up to 10M elements. ARRAYS_SORT runs the JDK's
+// java.util.Arrays.sort on the same inputs as the production baseline. The textbook quick sort has
+// its own QuickSortBenchmark, as most of these inputs make it quadratic.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArraySortBenchmark {
+
+    @Param({"ITERATIVE_QUICK", "MERGE", "PING_PONG_MERGE", "IN_PLACE_MERGE", "HEAP", "BOTTOM_UP_HEAP", "QUATERNARY_HEAP", "OCTONARY_HEAP", "INTRO", "TIM", "PARALLEL_MERGE", "PARALLEL_QUICK", "ARRAYS_SORT"})
+    public String algorithm;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private Object sort; // null for ARRAYS_SORT
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        sort = algorithm.equals("ARRAYS_SORT") ? null : Sorts.algorithm(algorithm);
+        input = distribution.generate(size, 42L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort(ElementCounter counter) {
+        // Copying into the preallocated work array keeps the measured path allocation free
+        System.arraycopy(input, 0, work, 0, size);
+        if (sort == null) {
+            Arrays.sort(work);
+        } else {
+            Sorts.sortArray(sort, work);
+        }
+        counter.elements += size;
+        return work;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The blocked bitonic sort with its Vector API kernel against the same sort on the scalar
+// kernel. The forks add the incubating vector module, so the SIMD kernel runs in the widest
+// species the CPU has (AVX2 or AVX-512 on x86); setup prints the kernel in use. The quick sort and
+// Arrays.sort baselines run once, on the same inputs, in QuickSortBenchmark and ArraySortBenchmark.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BitonicSortBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        System.out.println("Bitonic kernel: " + Sorts.bitonicKernel());
+        input = distribution.generate(size, 42L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] simd(ElementCounter counter) {
+        return sort(false, counter);
+    }
+
+    @Benchmark
+    public int[] scalar(ElementCounter counter) {
+        return sort(true, counter);
+    }
+
+    private int[] sort(boolean scalar, ElementCounter counter) {
+        System.arraycopy(input, 0, work, 0, size);
+        Sorts.bitonicSort(work, scalar);
+        counter.elements += size;
+        return work;
+    }
+}
@@ -0,0 +1,19 @@
+package benchmarks;
+
+// Input shapes the benchmarks are parameterized by. Each one is generated by the visualizer's
+// InputGenerator, so benchmarks, reports and the visualizers see the same data for a seed.
+public enum Distribution {
+    RANDOM,
+    SORTED,
+    REVERSED,
+    NEARLY_SORTED,
+    FEW_UNIQUE,
+    SAWTOOTH,
+    ORGAN_PIPE,
+    GAUSSIAN,
+    QUICKSORT_KILLER;
+
+    int[] generate(int size, long seed) {
+        return Sorts.generate(name(), size, seed);
+    }
+}
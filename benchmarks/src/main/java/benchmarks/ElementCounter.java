@@ -0,0 +1,19 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Counts sorted elements so JMH reports elements per second next to sorts per second
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ElementCounter {
+    public long elements;
+
+    @Setup(Level.Iteration)
+    public void clean() {
+        elements = 0;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The linked list algorithms on both node layouts: OBJECT runs LinkedListSortEngine over one
+// ListNode per element, ARENA runs ArenaListSortEngine over parallel int arrays. Like the
+// quadratic array sorts they default to at most 100K nodes; pass -p size=... to go further
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkedListSortBenchmark {
+
+    @Param({"BUBBLE", "SELECTION", "INSERTION", "MERGE"})
+    public String algorithm;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"OBJECT", "ARENA"})
+    public String layout;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private Object sort;
+    private int[] input;
+    private Object list;
+    private boolean arena;
+
+    @Setup
+    public void setup() {
+        sort = Sorts.listAlgorithm(algorithm);
+        input = distribution.generate(size, 42L);
+        arena = layout.equals("ARENA");
+        list = Sorts.newList(input, arena);
+    }
+
+    @Benchmark
+    public Object sort(ElementCounter counter) {
+        // Resetting the node values in place keeps the nodes, and the measured path, allocation free
+        Sorts.resetList(list, input, arena);
+        Sorts.sortList(sort, list, arena);
+        counter.elements += size;
+        return list;
+    }
+}
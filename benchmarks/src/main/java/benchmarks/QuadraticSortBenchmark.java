@@ -0,0 +1,55 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The quadratic SortEngine algorithms. They default to at most 100K elements;
+// pass -p size=1000000,10000000 to push them towards the 10M the other sorts cover
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuadraticSortBenchmark {
+
+    @Param({"BUBBLE", "SELECTION", "INSERTION"})
+    public String algorithm;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private Object sort;
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        sort = Sorts.algorithm(algorithm);
+        input = distribution.generate(size, 42L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort(ElementCounter counter) {
+        // Copying into the preallocated work array keeps the measured path allocation free
+        System.arraycopy(input, 0, work, 0, size);
+        Sorts.sortArray(sort, work);
+        counter.elements += size;
+        return work;
+    }
+}
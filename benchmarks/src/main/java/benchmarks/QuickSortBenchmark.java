@@ -0,0 +1,85 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The textbook Lomuto quick sort, split off from ArraySortBenchmark because it recurses n deep
+// on most distributions. Random-like input runs at every size; input that makes it quadratic only
+// runs at the sizes the stack and the clock survive. It is also the quick sort baseline of
+// RadixSortBenchmark and BitonicSortBenchmark.
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuickSortBenchmark {
+
+    private static final Object QUICK = Sorts.algorithm("QUICK");
+
+    @State(Scope.Thread)
+    public static class Balanced {
+
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int size;
+
+        @Param({"RANDOM", "GAUSSIAN"})
+        public Distribution distribution;
+
+        int[] input;
+        int[] work;
+
+        @Setup
+        public void setup() {
+            input = distribution.generate(size, 42L);
+            work = new int[size];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Adversarial {
+
+        @Param({"1000", "10000"})
+        public int size;
+
+        @Param({"SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+        public Distribution distribution;
+
+        int[] input;
+        int[] work;
+
+        @Setup
+        public void setup() {
+            input = distribution.generate(size, 42L);
+            work = new int[size];
+        }
+    }
+
+    @Benchmark
+    public int[] balanced(Balanced state, ElementCounter counter) {
+        return sort(state.input, state.work, counter);
+    }
+
+    @Benchmark
+    public int[] adversarial(Adversarial state, ElementCounter counter) {
+        return sort(state.input, state.work, counter);
+    }
+
+    private static int[] sort(int[] input, int[] work, ElementCounter counter) {
+        // Copying into the preallocated work array keeps the measured path allocation free
+        System.arraycopy(input, 0, work, 0, work.length);
+        Sorts.sortArray(QUICK, work);
+        counter.elements += work.length;
+        return work;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The non-comparison sorts at every radix width. The comparison sort baselines do not depend on
+// the radix, so they run once, on the same keys, in QuickSortBenchmark and ArraySortBenchmark.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RadixSortBenchmark {
+
+    @Param({"COUNTING", "LSD_RADIX", "MSD_RADIX"})
+    public String algorithm;
+
+    @Param({"8", "11", "16"})
+    public int radixBits;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private Object sort;
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        sort = Sorts.algorithm(algorithm);
+        input = distribution.generate(size, 42L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort(ElementCounter counter) {
+        System.arraycopy(input, 0, work, 0, size);
+        Sorts.sortArray(sort, work, radixBits);
+        counter.elements += size;
+        return work;
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// Entry point of benchmarks.jar. Accepts the usual JMH command line, always attaches the GC
+// profiler for allocation rates and finishes with a time-per-element table.
+public class SortBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        printTimePerElement(results);
+    }
+
+    private static void printTimePerElement(Collection<RunResult> results) {
+        System.out.println();
+        System.out.printf("%-60s %14s%n", "Benchmark (params)", "ns/element");
+        for (RunResult run : results) {
+            if (run.getParams().getMode() != Mode.AverageTime) {
+                continue;
+            }
+            String size = run.getParams().getParam("size");
+            if (size == null) {
+                continue;
+            }
+            Result<?> primary = run.getPrimaryResult();
+            double nanos = primary.getScore() * nanosPer(run.getParams().getTimeUnit());
+            System.out.printf("%-60s %14.3f%n", label(run), nanos / Integer.parseInt(size));
+        }
+    }
+
+    private static double nanosPer(TimeUnit unit) {
+        return unit.toNanos(1);
+    }
+
+    private static String label(RunResult run) {
+        StringBuilder label = new StringBuilder(run.getParams().getBenchmark().replace("benchmarks.", ""));
+        for (String key : run.getParams().getParamsKeys()) {
+            label.append(' ').append(run.getParams().getParam(key));
+        }
+        return label.toString();
+    }
+}
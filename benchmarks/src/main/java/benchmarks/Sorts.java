@@ -0,0 +1,184 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// The visualizer lives in the default package, which JMH benchmarks cannot import. These
+// constant method handles reach its public engines instead; the JIT inlines them like direct calls.
+final class Sorts {
+
+    private static final Class<?> ALGORITHM = load("Algorithm");
+    private static final Class<?> LIST_ALGORITHM = load("ListAlgorithm");
+    private static final Class<?> INPUT_DISTRIBUTION = load("InputDistribution");
+
+    private static final MethodHandle NEW_ENGINE;
+    private static final MethodHandle SORT_ARRAY;
+    private static final MethodHandle SET_RADIX_BITS;
+    private static final MethodHandle LIST_FROM_VALUES;
+    private static final MethodHandle LIST_RESET;
+    private static final MethodHandle SORT_LIST;
+    private static final MethodHandle ARENA_FROM_VALUES;
+    private static final MethodHandle ARENA_RESET;
+    private static final MethodHandle SORT_ARENA;
+    private static final MethodHandle NEW_GENERATOR;
+    private static final MethodHandle GENERATE;
+    private static final MethodHandle BITONIC_SORT;
+    private static final MethodHandle BITONIC_SORT_SCALAR;
+    private static final MethodHandle BITONIC_KERNEL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> engine = load("SortEngine");
+            Class<?> listEngine = load("LinkedListSortEngine");
+            Class<?> arenaEngine = load("ArenaListSortEngine");
+            Class<?> generator = load("InputGenerator");
+            Class<?> bitonic = load("BitonicSorts");
+            NEW_ENGINE = lookup.findConstructor(engine, MethodType.methodType(void.class, int[].class))
+                    .asType(MethodType.methodType(Object.class, int[].class));
+            SORT_ARRAY = lookup.findVirtual(engine, "sort", MethodType.methodType(void.class, ALGORITHM))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            SET_RADIX_BITS = lookup.findVirtual(engine, "setRadixBits", MethodType.methodType(engine, int.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, int.class));
+            LIST_FROM_VALUES = lookup.findStatic(listEngine, "fromValues", MethodType.methodType(listEngine, int[].class))
+                    .asType(MethodType.methodType(Object.class, int[].class));
+            LIST_RESET = lookup.findVirtual(listEngine, "reset", MethodType.methodType(void.class, int[].class))
+                    .asType(MethodType.methodType(void.class, Object.class, int[].class));
+            SORT_LIST = lookup.findVirtual(listEngine, "sort", MethodType.methodType(void.class, LIST_ALGORITHM))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            ARENA_FROM_VALUES = lookup.findStatic(arenaEngine, "fromValues", MethodType.methodType(arenaEngine, int[].class))
+                    .asType(MethodType.methodType(Object.class, int[].class));
+            ARENA_RESET = lookup.findVirtual(arenaEngine, "reset", MethodType.methodType(void.class, int[].class))
+                    .asType(MethodType.methodType(void.class, Object.class, int[].class));
+            SORT_ARENA = lookup.findVirtual(arenaEngine, "sort", MethodType.methodType(void.class, LIST_ALGORITHM))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            NEW_GENERATOR = lookup.findConstructor(generator, MethodType.methodType(void.class, long.class))
+                    .asType(MethodType.methodType(Object.class, long.class));
+            GENERATE = lookup.findVirtual(generator, "generate", MethodType.methodType(int[].class, INPUT_DISTRIBUTION, int.class))
+                    .asType(MethodType.methodType(int[].class, Object.class, Object.class, int.class));
+            BITONIC_SORT = lookup.findStatic(bitonic, "sort", MethodType.methodType(void.class, int[].class));
+            BITONIC_SORT_SCALAR = lookup.findStatic(bitonic, "sortScalar", MethodType.methodType(void.class, int[].class));
+            BITONIC_KERNEL = lookup.findStatic(bitonic, "kernelName", MethodType.methodType(String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Sorts() {
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Algorithm constant named name, e.g. "HEAP"
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object algorithm(String name) {
+        return Enum.valueOf((Class) ALGORITHM, name);
+    }
+
+    // ListAlgorithm constant named name, e.g. "BUBBLE"
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object listAlgorithm(String name) {
+        return Enum.valueOf((Class) LIST_ALGORITHM, name);
+    }
+
+    // size values of the InputDistribution named distribution, from InputGenerator with seed
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int[] generate(String distribution, int size, long seed) {
+        try {
+            Object shape = Enum.valueOf((Class) INPUT_DISTRIBUTION, distribution);
+            return (int[]) GENERATE.invokeExact(NEW_GENERATOR.invokeExact(seed), shape, size);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void sortArray(Object algorithm, int[] array) {
+        try {
+            SORT_ARRAY.invokeExact(NEW_ENGINE.invokeExact(array), algorithm);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void sortArray(Object algorithm, int[] array, int radixBits) {
+        try {
+            SORT_ARRAY.invokeExact(SET_RADIX_BITS.invokeExact(NEW_ENGINE.invokeExact(array), radixBits), algorithm);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // Blocked bitonic sort of array with the SIMD kernel when the Vector API is present, or with
+    // the scalar kernel when scalar is set
+    static void bitonicSort(int[] array, boolean scalar) {
+        try {
+            if (scalar) {
+                BITONIC_SORT_SCALAR.invokeExact(array);
+            } else {
+                BITONIC_SORT.invokeExact(array);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // The kernel bitonicSort uses without scalar, e.g. "Species[int, 8, S_256_BIT]"
+    static String bitonicKernel() {
+        try {
+            return (String) BITONIC_KERNEL.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // A linked list engine holding values, with one object per node or, when arena is set, an
+    // ArenaList of parallel int arrays
+    static Object newList(int[] values, boolean arena) {
+        try {
+            return arena ? (Object) ARENA_FROM_VALUES.invokeExact(values) : (Object) LIST_FROM_VALUES.invokeExact(values);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void resetList(Object list, int[] values, boolean arena) {
+        try {
+            if (arena) {
+                ARENA_RESET.invokeExact(list, values);
+            } else {
+                LIST_RESET.invokeExact(list, values);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void sortList(Object algorithm, Object list, boolean arena) {
+        try {
+            if (arena) {
+                SORT_ARENA.invokeExact(list, algorithm);
+            } else {
+                SORT_LIST.invokeExact(list, algorithm);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.function.Consumer;
+
+// Every algorithm the SortEngine knows how to run, with the label shown on the buttons
+public enum Algorithm {
+    BUBBLE("Bubble Sort", SortEngine::bubbleSort),
+    SELECTION("Selection Sort", SortEngine::selectionSort),
+    INSERTION("Insertion Sort", SortEngine::insertionSort),
+    QUICK("Quick Sort", engine -> engine.quickSort(0, engine.length() - 1)),
+    ITERATIVE_QUICK("Iterative Quick Sort", QuickSorts::iterativeQuickSort),
+    MERGE("Merge Sort", engine -> engine.mergeSort(0, engine.length() - 1)),
+    PING_PONG_MERGE("Ping-Pong Merge Sort", MergeSorts::pingPongMergeSort),
+    IN_PLACE_MERGE("In-Place Merge Sort", MergeSorts::inPlaceMergeSort),
+    HEAP("Heap Sort", SortEngine::heapSort),
+    BOTTOM_UP_HEAP("Bottom-Up Heap Sort", HeapSorts::bottomUpHeapSort),
+    QUATERNARY_HEAP("4-ary Heap Sort", engine -> HeapSorts.dAryHeapSort(engine, 4)),
+    OCTONARY_HEAP("8-ary Heap Sort", engine -> HeapSorts.dAryHeapSort(engine, 8)),
+    INTRO("Introsort", HybridSorts::introSort),
+    TIM("TimSort", HybridSorts::timSort),
+    BITONIC("Bitonic Sort", BitonicSorts::bitonicSort),
+    BLOCKED_BITONIC("Blocked Bitonic Sort", BitonicSorts::blockedBitonicSort),
+    PARALLEL_MERGE("Parallel Merge Sort", ParallelSorts::mergeSort),
+    PARALLEL_QUICK("Parallel Quick Sort", ParallelSorts::quickSort),
+    COUNTING("Counting Sort", RadixSorts::countingSort),
+    LSD_RADIX("LSD Radix Sort", RadixSorts::lsdRadixSort),
+    MSD_RADIX("MSD Radix Sort", RadixSorts::msdRadixSort);
+
+    private final String displayName;
+    private final Consumer<SortEngine> body;
+
+    Algorithm(String displayName, Consumer<SortEngine> body) {
+        this.displayName = displayName;
+        this.body = body;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    void sort(SortEngine engine) {
+        body.accept(engine);
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+// Linked list kept in parallel primitive arrays instead of one object per node. Node k holds
+// values[k], its successor is next[k] (NIL at the end) and position[k] is its index in the list,
+// like ListNode's fields. Nodes are allocated in order from the front of the arrays, and the tail
+// index makes append O(1), so a list of millions of nodes is built in one pass.
+public class ArenaList {
+
+    static final int NIL = -1;
+
+    int[] values;
+    int[] next;
+    int[] position;
+    int head = NIL;
+    int tail = NIL;
+    private int size;
+
+    public ArenaList(int capacity) {
+        capacity = Math.max(1, capacity);
+        values = new int[capacity];
+        next = new int[capacity];
+        position = new int[capacity];
+    }
+
+    public static ArenaList fromValues(int[] values) {
+        ArenaList list = new ArenaList(values.length);
+        for (int value : values) {
+            list.append(value);
+        }
+        return list;
+    }
+
+    // Adds a node holding value after the tail and returns its index
+    public int append(int value) {
+        if (size == values.length) {
+            int capacity = size * 2;
+            values = Arrays.copyOf(values, capacity);
+            next = Arrays.copyOf(next, capacity);
+            position = Arrays.copyOf(position, capacity);
+        }
+        int node = size++;
+        values[node] = value;
+        next[node] = NIL;
+        position[node] = node;
+        if (tail == NIL) {
+            head = node;
+        } else {
+            next[tail] = node;
+            position[node] = position[tail] + 1;
+        }
+        tail = node;
+        return node;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getHead() {
+        return head;
+    }
+
+    public int value(int node) {
+        return values[node];
+    }
+
+    public int next(int node) {
+        return next[node];
+    }
+
+    public int position(int node) {
+        return position[node];
+    }
+
+    // Overwrites the node values in list order without allocating, so a list can be re-sorted
+    public void reset(int[] newValues) {
+        int node = head;
+        for (int i = 0; node != NIL && i < newValues.length; i++) {
+            values[node] = newValues[i];
+            node = next[node];
+        }
+    }
+
+    // Values in list order
+    public int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int node = head; node != NIL; node = next[node]) {
+            result[i++] = values[node];
+        }
+        return result;
+    }
+}
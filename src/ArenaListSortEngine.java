@@ -0,0 +1,182 @@
+// The linked list sorts of LinkedListSortEngine over an ArenaList. Nodes are int indices into the
+// arena's arrays, so following a next link reads one int instead of dereferencing an object,
+// and neighbouring nodes share cache lines for as long as they stay in allocation order.
+public class ArenaListSortEngine {
+
+    private static final int NIL = ArenaList.NIL;
+
+    private final ArenaList list;
+    private final ArenaListSortListener listener;
+    // The arena's arrays, cached for the hot loops; sorting never resizes them
+    private final int[] values;
+    private final int[] next;
+    private final int[] position;
+
+    public ArenaListSortEngine(ArenaList list) {
+        this(list, ArenaListSortListener.NONE);
+    }
+
+    public ArenaListSortEngine(ArenaList list, ArenaListSortListener listener) {
+        this.list = list;
+        this.listener = listener;
+        this.values = list.values;
+        this.next = list.next;
+        this.position = list.position;
+        renumber(list.head, 0);
+    }
+
+    public static ArenaListSortEngine fromValues(int[] values) {
+        return new ArenaListSortEngine(ArenaList.fromValues(values));
+    }
+
+    public ArenaList getList() {
+        return list;
+    }
+
+    public void reset(int[] newValues) {
+        list.reset(newValues);
+    }
+
+    public void sort(ListAlgorithm algorithm) {
+        algorithm.sort(this);
+    }
+
+    // Restores the position of from and every node after it, from holding index position.
+    // Returns the position following the last node.
+    private int renumber(int from, int position) {
+        for (int node = from; node != NIL; node = next[node]) {
+            this.position[node] = position++;
+        }
+        return position;
+    }
+
+    private void swapValues(int a, int b) {
+        int tempValue = values[a];
+        values[a] = values[b];
+        values[b] = tempValue;
+        listener.onSwap(a, b);
+    }
+
+    // Sorting Algorithms
+    public void bubbleSort() {
+        boolean swapped;
+        do {
+            swapped = false;
+            int current = list.head;
+            while (current != NIL && next[current] != NIL) {
+                listener.onCompare(current, next[current]);
+                if (values[current] > values[next[current]]) {
+                    swapValues(current, next[current]);
+                    swapped = true;
+                }
+                current = next[current];
+            }
+        } while (swapped);
+    }
+
+    public void selectionSort() {
+        int current = list.head;
+        while (current != NIL) {
+            int minNode = current;
+            int tempNode = next[current];
+            while (tempNode != NIL) {
+                listener.onCompare(tempNode, minNode);
+                if (values[tempNode] < values[minNode]) {
+                    minNode = tempNode;
+                }
+                tempNode = next[tempNode];
+            }
+            if (minNode != current) {
+                swapValues(current, minNode);
+            }
+            current = next[current];
+        }
+    }
+
+    public void insertionSort() {
+        int current = list.head;
+        while (current != NIL) {
+            int nextNode = next[current];
+            while (nextNode != NIL) {
+                listener.onCompare(current, nextNode);
+                if (values[current] > values[nextNode]) {
+                    swapValues(current, nextNode);
+                }
+                nextNode = next[nextNode];
+            }
+            current = next[current];
+        }
+    }
+
+    // Bottom-up merge sort that rewires next links, as in LinkedListSortEngine.mergeSort
+    public void mergeSort() {
+        int n = renumber(list.head, 0);
+        for (int width = 1; width < n; width *= 2) {
+            int remaining = list.head;
+            int tail = NIL; // Last node merged so far in this pass
+            int position = 0;
+            while (remaining != NIL) {
+                int left = remaining;
+                int right = split(left, width);
+                remaining = split(right, width);
+                int before = tail;
+                tail = merge(left, right, tail);
+                position = renumber(before == NIL ? list.head : next[before], position);
+            }
+            list.tail = tail; // Keeps append O(1) on the sorted list
+        }
+    }
+
+    // Cuts the list after width nodes starting at from and returns the node after the cut
+    private int split(int from, int width) {
+        for (int k = 1; from != NIL && k < width; k++) {
+            from = next[from];
+        }
+        if (from == NIL) {
+            return NIL;
+        }
+        int rest = next[from];
+        if (rest != NIL) {
+            relink(from, NIL);
+        }
+        return rest;
+    }
+
+    // Appends the merge of the NIL-terminated runs a and b after tail, or as the new head when
+    // tail is NIL, and returns the last node appended
+    private int merge(int a, int b, int tail) {
+        while (a != NIL && b != NIL) {
+            listener.onCompare(a, b);
+            int taken;
+            if (values[a] <= values[b]) {
+                taken = a;
+                a = next[a];
+            } else {
+                taken = b;
+                b = next[b];
+            }
+            tail = append(tail, taken);
+        }
+        tail = append(tail, a != NIL ? a : b);
+        while (next[tail] != NIL) {
+            tail = next[tail];
+        }
+        return tail;
+    }
+
+    private int append(int tail, int node) {
+        if (tail == NIL) {
+            list.head = node;
+        } else {
+            relink(tail, node);
+        }
+        return node;
+    }
+
+    private void relink(int node, int nextNode) {
+        if (next[node] != nextNode) {
+            next[node] = nextNode;
+            listener.onRelink(node, nextNode);
+        }
+    }
+}
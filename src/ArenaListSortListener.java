@@ -0,0 +1,13 @@
+// ArenaList counterpart of ListSortListener: events name nodes by their index in the arena
+public interface ArenaListSortListener {
+    ArenaListSortListener NONE = new ArenaListSortListener() { };
+
+    // Values of nodes a and b were compared
+    default void onCompare(int a, int b) { }
+
+    // Values of nodes a and b were exchanged
+    default void onSwap(int a, int b) { }
+
+    // next of node now points at next (ArenaList.NIL when a sublist was split off after node)
+    default void onRelink(int node, int next) { }
+}
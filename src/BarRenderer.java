@@ -0,0 +1,248 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// Draws the array into a cached back buffer. Indices changed since the last frame are marked
+// dirty and only their columns are redrawn, so a swap costs two columns instead of the whole
+// array. In full mode every flush that finds anything dirty redraws all columns instead, which
+// is kept around for comparison.
+//
+// Arrays that fit on screen are drawn as bars. Column i is drawn entirely inside
+// [i * barWidth, (i + 1) * barWidth): its left edge carries the outline shared with bar i - 1,
+// so a change to bar i also dirties column i + 1. Larger arrays get one pixel column per slice
+// of the array, showing the min/max/mean envelope kept up to date by ColumnEnvelope.
+class BarRenderer {
+
+    private static final Color BAR_COLOR = new Color(0, 150, 255); // Blue color for bars
+    private static final Color OUTLINE_COLOR = Color.BLACK;
+    private static final Color ENVELOPE_HIGH_COLOR = new Color(150, 210, 255); // Mean up to max
+    private static final Color ENVELOPE_LOW_COLOR = new Color(0, 90, 160); // Min up to mean
+    private static final Color[] WORKER_COLORS = workerColors(64);
+    private static final int MIN_OUTLINED_BAR_WIDTH = 3;
+    private static final int RESCAN_BUDGET = 1 << 21; // Elements re-read per frame to tighten stale envelopes
+
+    private final int[] array;
+    private final int maxValue;
+    private final int width;
+    private final int height;
+    private final Color background;
+    private final BufferedImage buffer;
+
+    private final int columns;
+    private final int barWidth;
+    private final ColumnEnvelope envelope; // null while every element has its own bar
+    private final int[] owner; // Worker currently sorting each column, -1 for none
+
+    // Dirty columns since the last flush: a flag per column plus a list of the flagged ones
+    private final boolean[] dirty;
+    private final int[] dirtyList;
+    private int dirtyCount;
+    private boolean allDirty = true;
+    private boolean rebuildEnvelope; // The array changed without reports, see markAllDirty
+    private boolean incremental = true;
+
+    BarRenderer(int[] array, int maxValue, int width, int height, Color background) {
+        this.array = array;
+        this.maxValue = Math.max(1, maxValue);
+        this.width = width;
+        this.height = height;
+        this.background = background;
+        this.buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        if (array.length <= width) {
+            columns = array.length;
+            barWidth = array.length == 0 ? width : width / array.length;
+            envelope = null;
+        } else {
+            columns = width;
+            barWidth = 1;
+            envelope = new ColumnEnvelope(array, width);
+        }
+        this.dirty = new boolean[columns + 1];
+        this.dirtyList = new int[columns + 1];
+        this.owner = new int[columns];
+        Arrays.fill(owner, -1);
+    }
+
+    // Evenly spread hues, so neighbouring worker indices get clearly different colors
+    private static Color[] workerColors(int count) {
+        Color[] colors = new Color[count];
+        for (int k = 0; k < count; k++) {
+            colors[k] = Color.getHSBColor((k * 0.618034f) % 1f, 0.65f, 1f);
+        }
+        return colors;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    synchronized void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        allDirty = true;
+    }
+
+    // Called by the sort thread for every element it changes, after the change
+    synchronized void changed(int index, int oldValue, int newValue) {
+        if (envelope == null) {
+            if (allDirty) return;
+            markColumn(index);
+            markColumn(index + 1);
+        } else {
+            // Marked even before a full redraw, which only rescans the stale columns it finds
+            // in the dirty list
+            envelope.update(index, oldValue, newValue);
+            markColumn(envelope.columnOf(index));
+        }
+    }
+
+    // Tints the columns covering indices [from, to] as owned by worker
+    synchronized void setOwner(int from, int to, int worker) {
+        int first = columnOf(from);
+        int last = columnOf(to);
+        for (int c = first; c <= last; c++) {
+            if (owner[c] != worker) {
+                owner[c] = worker;
+                markColumn(c);
+            }
+        }
+    }
+
+    synchronized void clearOwners() {
+        Arrays.fill(owner, -1);
+        allDirty = true;
+    }
+
+    private int columnOf(int index) {
+        return envelope == null ? index : envelope.columnOf(index);
+    }
+
+    // Left edge of the column that draws index; length gives the right edge of the last column
+    int xOf(int index) {
+        return envelope == null ? index * barWidth : columnOf(index);
+    }
+
+    // For arrays rewritten without changed() reports, such as a restored timeline position; only
+    // call it while no sort is writing to the array
+    synchronized void markAllDirty() {
+        allDirty = true;
+        rebuildEnvelope = envelope != null;
+    }
+
+    private void markColumn(int column) {
+        if (column < columns && !dirty[column]) {
+            dirty[column] = true;
+            dirtyList[dirtyCount++] = column;
+        }
+    }
+
+    // Brings the back buffer up to date by redrawing the dirty columns, or all of them in full
+    // mode. Either way only the stale envelopes of dirty columns are rescanned, within a budget
+    // per frame. Returns the screen area that changed, or null when nothing did.
+    synchronized Rectangle flush() {
+        if (!incremental && dirtyCount > 0) {
+            allDirty = true;
+        }
+        if (!allDirty && dirtyCount == 0) {
+            return null;
+        }
+        if (rebuildEnvelope) {
+            envelope.rebuild();
+            rebuildEnvelope = false;
+        }
+        Graphics2D g = buffer.createGraphics();
+        try {
+            int minColumn = columns;
+            int maxColumn = -1;
+            int budget = RESCAN_BUDGET;
+            int count = dirtyCount;
+            dirtyCount = 0;
+            for (int k = 0; k < count; k++) {
+                int column = dirtyList[k];
+                dirty[column] = false;
+                if (envelope != null && envelope.isStale(column)) {
+                    if (budget > 0) {
+                        budget -= envelope.rescan(column);
+                    } else {
+                        // Drawn with loose bounds now, tightened next frame. Re-adding writes at
+                        // dirtyCount <= k, so it never overwrites an entry not yet visited.
+                        markColumn(column);
+                    }
+                }
+                if (!allDirty) {
+                    drawColumn(g, column);
+                    minColumn = Math.min(minColumn, column);
+                    maxColumn = Math.max(maxColumn, column);
+                }
+            }
+            if (allDirty) {
+                g.setColor(background);
+                g.fillRect(0, 0, width, height);
+                for (int c = 0; c < columns; c++) {
+                    drawColumn(g, c);
+                }
+                allDirty = false;
+                return new Rectangle(0, 0, width, height);
+            }
+            return new Rectangle(minColumn * barWidth, 0, (maxColumn - minColumn + 1) * barWidth, height);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Copies the back buffer, honouring the clip set by repaint(x, y, w, h)
+    void paint(Graphics g) {
+        g.drawImage(buffer, 0, 0, null);
+    }
+
+    BufferedImage getBuffer() {
+        return buffer;
+    }
+
+    private int scale(long value) {
+        return (int) (value * height / maxValue);
+    }
+
+    private Color barColor(int c) {
+        return owner[c] < 0 ? BAR_COLOR : WORKER_COLORS[owner[c] % WORKER_COLORS.length];
+    }
+
+    private void drawColumn(Graphics2D g, int c) {
+        int x = c * barWidth;
+        g.setColor(background);
+        g.fillRect(x, 0, barWidth, height);
+        if (envelope != null) {
+            drawEnvelope(g, c, x);
+            return;
+        }
+
+        int value = scale(array[c]);
+        g.setColor(barColor(c));
+        g.fillRect(x, height - value, barWidth, value);
+        if (barWidth >= MIN_OUTLINED_BAR_WIDTH) {
+            g.setClip(x, 0, barWidth, height);
+            g.setColor(OUTLINE_COLOR);
+            g.drawRect(x, height - value, barWidth, value); // Only the left and top edges fall inside the column
+            if (c > 0) {
+                // Right edge of the previous bar shares this column's first pixel column
+                g.drawLine(x, height - scale(array[c - 1]), x, height);
+            }
+            g.setClip(null);
+        }
+    }
+
+    private void drawEnvelope(Graphics2D g, int c, int x) {
+        int top = height - scale(envelope.max(c));
+        int bottom = height - scale(envelope.min(c));
+        int mean = height - scale(envelope.mean(c));
+        g.setColor(barColor(c));
+        g.fillRect(x, mean, 1, height - mean);
+        g.setColor(ENVELOPE_HIGH_COLOR);
+        g.drawLine(x, top, x, mean);
+        g.setColor(ENVELOPE_LOW_COLOR);
+        g.drawLine(x, mean, x, bottom);
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Headless batch mode of Main: sorts a file or a generated input with one algorithm and prints a
+// JSON object per line, one per timed run and a summary at the end. The timed runs sort a fresh
+// copy with SortListener.NONE; comparisons, swaps, writes and auxiliary memory come from one more
+// run through SortCounters, so counting never slows the timings. Every result is checked to be in
+// order and to hold the same values as the input, and the exit status is 1 if one is not; it is
+// 2, with the usage below on standard error, for arguments it cannot use.
+//
+// Nothing here or in the sorts touches AWT or Swing, which keeps the JVM's startup short.
+//
+// Usage: java -cp src Main --algo NAME [--input FILE] [--format binary|text] [--byte-order big|little]
+//            [--size N] [--distribution D] [--seed S] [--repeat R] [--count true|false]
+//            [--parallelism P] [--output FILE]
+// Names are Algorithm and InputDistribution constants in any case, e.g. --algo heap. Without
+// --input, --size ints of --distribution are generated; with it, --size keeps the first N ints
+// of the file. The format follows the file's extension unless given.
+public final class BatchSort {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -cp src Main --algo NAME [--input FILE] [--format binary|text] [--byte-order big|little]",
+            "           [--size N] [--distribution D] [--seed S] [--repeat R] [--count true|false]",
+            "           [--parallelism P] [--output FILE]");
+    private static final List<String> OPTIONS = List.of("algo", "input", "format", "byte-order", "size",
+            "distribution", "seed", "repeat", "count", "parallelism", "output");
+
+    private BatchSort() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLine.run(args, USAGE, OPTIONS, BatchSort::run);
+    }
+
+    private static void run(CommandLine options) throws IOException {
+        Algorithm algorithm = options.getEnum("algo", Algorithm.class, null);
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Choose an algorithm with --algo, one of " + Arrays.toString(Algorithm.values()));
+        }
+        int repeat = options.getInt("repeat", 1, 0);
+        boolean count = options.getBoolean("count", true);
+        int parallelism = options.getInt("parallelism", Runtime.getRuntime().availableProcessors(), 1);
+        ByteOrder order = options.getByteOrder("byte-order");
+        long seed = options.getLong("seed", 42); // Of the generated input and of random pivots
+
+        long loadStart = System.nanoTime();
+        int[] input;
+        String source;
+        if (options.has("input")) {
+            Path path = options.requireFile("input", "the file to sort");
+            IntFiles.Format format = options.getEnum("format", IntFiles.Format.class, IntFiles.Format.of(path));
+            input = IntFiles.read(path, format, order, options.getInt("size", -1, -1));
+            source = path.toString();
+        } else {
+            InputDistribution distribution = options.getEnum("distribution", InputDistribution.class, InputDistribution.RANDOM);
+            input = new InputGenerator(seed).generate(distribution, options.getInt("size", 1_000_000, 0));
+            source = distribution.name();
+        }
+        double loadMillis = (System.nanoTime() - loadStart) / 1e6;
+        long fingerprint = fingerprint(input);
+
+        boolean valid = true;
+        long[] times = new long[repeat];
+        int[] work = null;
+        for (int run = 0; run < repeat; run++) {
+            work = input.clone();
+            long start = System.nanoTime();
+            new SortEngine(work).setSeed(seed).setParallelism(parallelism).sort(algorithm);
+            times[run] = System.nanoTime() - start;
+            boolean sorted = IntArrays.isSorted(work);
+            boolean sameValues = fingerprint(work) == fingerprint;
+            valid &= sorted && sameValues;
+            System.out.println(new Json()
+                    .put("type", "run").put("algorithm", algorithm.name()).put("input", source)
+                    .put("size", input.length).put("run", run + 1).put("wall_ms", times[run] / 1e6)
+                    .put("ns_per_element", input.length == 0 ? 0 : (double) times[run] / input.length)
+                    .put("sorted", sorted).put("same_values", sameValues));
+        }
+
+        Json summary = new Json()
+                .put("type", "summary").put("algorithm", algorithm.name()).put("input", source)
+                .put("size", input.length).put("runs", repeat).put("load_ms", loadMillis);
+        if (repeat > 0) {
+            long total = 0;
+            for (long time : times) {
+                total += time;
+            }
+            Arrays.sort(times);
+            // The middle time, or the mean of the two middle ones when there is an even number
+            double median = (times[(repeat - 1) / 2] + times[repeat / 2]) / 2.0;
+            summary.put("best_ms", times[0] / 1e6).put("median_ms", median / 1e6)
+                    .put("mean_ms", total / 1e6 / repeat);
+        }
+        if (count) {
+            SortCounters counters = new SortCounters();
+            int[] counted = input.clone();
+            new SortEngine(counted, counters.counting(SortListener.NONE)).setSeed(seed).setParallelism(parallelism)
+                    .sort(algorithm);
+            counters.finish();
+            SortCounters.Snapshot totals = counters.snapshot();
+            valid &= IntArrays.isSorted(counted) && fingerprint(counted) == fingerprint;
+            summary.put("comparisons", totals.comparisons).put("swaps", totals.swaps).put("writes", totals.writes)
+                    .put("aux_bytes", totals.auxBytes).put("counted_cpu_ms", totals.cpuNanos / 1e6)
+                    .put("counted_wall_ms", totals.wallNanos / 1e6);
+            if (work == null) {
+                work = counted;
+            }
+        }
+        System.out.println(summary.put("valid", valid));
+
+        if (options.has("output") && work != null) {
+            Path path = options.getPath("output");
+            IntFiles.Format format = options.getEnum("format", IntFiles.Format.class, IntFiles.Format.of(path));
+            IntFiles.write(path, work, format, order);
+        }
+        if (!valid) {
+            System.exit(1);
+        }
+    }
+
+    // Sum of a mixing function over the values, which does not depend on their order, so a sort
+    // that loses or duplicates values almost surely changes it
+    private static long fingerprint(int[] array) {
+        long sum = 0;
+        for (int value : array) {
+            long z = (value + 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 31)) * 0x94D049BB133111EBL;
+            sum += z ^ (z >>> 29);
+        }
+        return sum;
+    }
+
+    // One JSON object, built field by field in order
+    private static final class Json {
+        private final StringBuilder text = new StringBuilder("{");
+
+        Json put(String key, String value) {
+            key(key).append('"');
+            for (int k = 0; k < value.length(); k++) {
+                char c = value.charAt(k);
+                if (c == '"' || c == '\\') {
+                    text.append('\\').append(c);
+                } else if (c < 0x20) {
+                    text.append(String.format("\\u%04x", (int) c));
+                } else {
+                    text.append(c);
+                }
+            }
+            text.append('"');
+            return this;
+        }
+
+        Json put(String key, long value) {
+            key(key).append(value);
+            return this;
+        }
+
+        Json put(String key, double value) {
+            key(key).append(String.format(Locale.ROOT, "%.3f", value));
+            return this;
+        }
+
+        Json put(String key, boolean value) {
+            key(key).append(value);
+            return this;
+        }
+
+        private StringBuilder key(String key) {
+            if (text.length() > 1) {
+                text.append(',');
+            }
+            return text.append('"').append(key).append("\":");
+        }
+
+        @Override
+        public String toString() {
+            return text + "}";
+        }
+    }
+}
@@ -0,0 +1,35 @@
+// Sorts one block of BitonicSorts.BLOCK ints with a bitonic network. BitonicSorts picks the
+// Vector API kernel when the jdk.incubator.vector module is present and this scalar one otherwise.
+interface BitonicKernel {
+
+    BitonicKernel SCALAR = new BitonicKernel() {
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public void sortBlock(int[] array, int from) {
+            for (int k = 2; k <= BitonicSorts.BLOCK; k <<= 1) {
+                for (int j = k >> 1; j > 0; j >>= 1) {
+                    int mask = j == k >> 1 ? k - 1 : j;
+                    for (int i = 0; i < BitonicSorts.BLOCK; i++) {
+                        int partner = i ^ mask;
+                        if (partner > i) {
+                            int x = array[from + i];
+                            int y = array[from + partner];
+                            array[from + i] = Math.min(x, y);
+                            array[from + partner] = Math.max(x, y);
+                        }
+                    }
+                }
+            }
+        }
+    };
+
+    // Shown in reports, e.g. "scalar" or the vector species
+    String name();
+
+    // Sorts array[from, from + BitonicSorts.BLOCK)
+    void sortBlock(int[] array, int from);
+}
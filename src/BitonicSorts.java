@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+// Bitonic sorting networks. Every stage of a network is a set of compare-exchanges on disjoint
+// pairs, so a whole stage can run as one data-parallel step. This uses the form where every
+// comparator puts the smaller value at the lower index: the first stage of each merge pairs i
+// with its mirror image in the block, i ^ (k - 1), and the later ones pair i with i ^ j. Sizes
+// that are not a power of two behave as if padded with the largest int, so comparators that
+// reach past the end are skipped.
+//
+// Two algorithms run on the network. bitonicSort is the network itself over the whole array,
+// every comparator going through the engine and each stage's end reported, so a view can draw
+// it as one step. blockedBitonicSort sorts blocks of BLOCK ints with the best BitonicKernel,
+// SIMD where the Vector API is available, then merges the blocks bottom-up between the array and
+// the engine's scratch buffer. Its kernel's comparators run as vector lanes and are not reported
+// one by one; each block's result is reported as the writes that changed it, and the merges
+// report their comparisons and writes as any merge sort does. sort(int[]) is the same blocked
+// sort on a bare array, with a branchless merge, for the benchmarks.
+public final class BitonicSorts {
+
+    // Ints per kernel block: 16 AVX-512 registers, 32 AVX2 ones, all inside the L1 cache
+    static final int BLOCK = 256;
+    private static final BitonicKernel KERNEL = loadKernel();
+
+    private BitonicSorts() {
+    }
+
+    // The Vector API kernel is compiled from its own source root and needs the incubating module
+    // at run time (--add-modules jdk.incubator.vector); without it the scalar kernel is used
+    private static BitonicKernel loadKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (BitonicKernel) Class.forName("VectorBitonicKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                // Built without the vector sources
+            }
+        }
+        return BitonicKernel.SCALAR;
+    }
+
+    public static String kernelName() {
+        return KERNEL.name();
+    }
+
+    static void bitonicSort(SortEngine engine) {
+        network(engine);
+    }
+
+    static void blockedBitonicSort(SortEngine engine) {
+        int[] array = engine.getArray();
+        int n = array.length;
+        int[] block = new int[BLOCK];
+        engine.allocated(BLOCK);
+        for (int from = 0; from < n; from += BLOCK) {
+            int length = Math.min(BLOCK, n - from);
+            engine.range(from, from + length - 1);
+            System.arraycopy(array, from, block, 0, length);
+            Arrays.fill(block, length, BLOCK, Integer.MAX_VALUE);
+            KERNEL.sortBlock(block, 0);
+            for (int k = 0; k < length; k++) {
+                if (block[k] != array[from + k]) {
+                    engine.write(from + k, block[k]);
+                }
+            }
+        }
+        MergeSorts.mergePasses(engine, BLOCK);
+    }
+
+    // Compare-exchange stages of the network for n elements
+    static int stages(int n) {
+        int levels = n < 2 ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+        return levels * (levels + 1) / 2;
+    }
+
+    private static void network(SortEngine engine) {
+        int[] array = engine.getArray();
+        int n = array.length;
+        if (n < 2) return;
+        int size = Integer.highestOneBit(n - 1) << 1;
+        for (int k = 2; k <= size; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                int mask = j == k >> 1 ? k - 1 : j;
+                for (int i = 0; i < n; i++) {
+                    int partner = i ^ mask;
+                    if (partner > i && partner < n) {
+                        engine.compared(i, partner);
+                        if (array[partner] < array[i]) {
+                            engine.swap(i, partner);
+                        }
+                    }
+                }
+                engine.stage();
+            }
+        }
+    }
+
+    // Sorts array with the best kernel available
+    public static void sort(int[] array) {
+        sort(array, KERNEL);
+    }
+
+    // Sorts array with the scalar kernel, as the baseline for the SIMD one
+    public static void sortScalar(int[] array) {
+        sort(array, BitonicKernel.SCALAR);
+    }
+
+    static void sort(int[] array, BitonicKernel kernel) {
+        int n = array.length;
+        int full = n - n % BLOCK;
+        for (int from = 0; from < full; from += BLOCK) {
+            kernel.sortBlock(array, from);
+        }
+        if (full < n) {
+            int[] last = new int[BLOCK];
+            Arrays.fill(last, Integer.MAX_VALUE);
+            System.arraycopy(array, full, last, 0, n - full);
+            kernel.sortBlock(last, 0);
+            System.arraycopy(last, 0, array, full, n - full);
+        }
+        if (n <= BLOCK) return;
+        int[] source = array;
+        int[] target = new int[n];
+        for (int width = BLOCK; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                merge(source, target, low, Math.min(low + width, n), Math.min(low + 2 * width, n));
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, n);
+        }
+    }
+
+    // Merges source[low, mid) and source[mid, high) into target[low, high) without branching on
+    // the comparison, which random keys would mispredict half the time
+    private static void merge(int[] source, int[] target, int low, int mid, int high) {
+        int i = low;
+        int j = mid;
+        int k = low;
+        while (i < mid && j < high) {
+            int x = source[i];
+            int y = source[j];
+            boolean right = y < x;
+            target[k++] = right ? y : x;
+            i += right ? 0 : 1;
+            j += right ? 1 : 0;
+        }
+        System.arraycopy(source, i, target, k, mid - i);
+        System.arraycopy(source, j, target, k + mid - i, high - j);
+    }
+}
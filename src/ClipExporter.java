@@ -0,0 +1,578 @@
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Renders a sort offscreen into a clip, without a window: a numbered PNG sequence, an animated
+// GIF, or both. The sort runs once to count its operations and again at full speed, and every
+// fps * seconds-th share of its operations becomes one frame. A snapshot of the array (or of the
+// list's nodes) goes to a pool with a worker per core that rasterizes it with the same
+// BarRenderer or NodeRenderer as the live views, maps it onto a fixed palette and encodes it;
+// the GIF is written in frame order by one writer thread. At most two frames per core are in
+// flight, so memory stays bounded however long the clip is.
+//
+// Usage: java -Djava.awt.headless=true -cp src ClipExporter [--view bars|nodes] [--algo NAME]
+//            [--input DISTRIBUTION] [--size N] [--seed S] [--trace FILE] [--fps F] [--seconds S]
+//            [--width W] [--height H] [--png DIR] [--gif FILE]
+// Bar clips take Algorithm names or a trace recorded by the array view; node clips take
+// ListAlgorithm names and sort an arena-backed list.
+public class ClipExporter {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -Djava.awt.headless=true -cp src ClipExporter [--view bars|nodes] [--algo NAME]",
+            "           [--input DISTRIBUTION] [--size N] [--seed S] [--trace FILE] [--fps F] [--seconds S]",
+            "           [--width W] [--height H] [--png DIR] [--gif FILE]");
+    private static final List<String> OPTIONS = List.of("view", "algo", "input", "size", "seed", "trace", "fps",
+            "seconds", "width", "height", "png", "gif");
+
+    private static final Color BACKGROUND = new Color(30, 30, 30);
+    private static final IndexColorModel PALETTE = palette();
+    private static final float PNG_QUALITY = 0.9f; // ImageIO maps quality to deflate level, 1.0 being none
+
+    private final int width;
+    private final int height;
+    private final Path pngDirectory;
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    private final ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+        Thread thread = new Thread(task, "clip-raster");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Semaphore inFlight = new Semaphore(2 * threads);
+    private final BlockingQueue<Future<BufferedImage>> pending = new LinkedBlockingQueue<>();
+    private final Future<BufferedImage> end = CompletableFuture.completedFuture(null);
+    private final boolean gif;
+    private final List<Throwable> errors = new ArrayList<>(); // Only the writer thread adds, before finish joins it
+    private int frames;
+
+    ClipExporter(int width, int height, Path pngDirectory, boolean gif) {
+        this.width = width;
+        this.height = height;
+        this.pngDirectory = pngDirectory;
+        this.gif = gif;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        CommandLine.run(args, USAGE, OPTIONS, ClipExporter::run);
+    }
+
+    private static void run(CommandLine options) throws Exception {
+        String view = options.get("view", "bars");
+        if (!view.equals("bars") && !view.equals("nodes")) {
+            throw new IllegalArgumentException("--view takes bars or nodes, got " + view);
+        }
+        boolean nodes = view.equals("nodes");
+        int width = options.getInt("width", 800, 1);
+        int height = options.getInt("height", 600, 1);
+        int fps = options.getInt("fps", 30, 1);
+        int seconds = options.getInt("seconds", 60, 1);
+        int size = options.getInt("size", nodes ? 40 : 10000, 1);
+        long seed = options.getLong("seed", 42);
+        InputDistribution distribution = options.getEnum("input", InputDistribution.class, InputDistribution.RANDOM);
+        Path png = options.has("png") ? options.getPath("png") : null;
+        Path gifFile = options.has("gif") ? options.getPath("gif") : null;
+        if (png == null && gifFile == null) {
+            throw new IllegalArgumentException("Nothing to write: give --png DIR, --gif FILE or both");
+        }
+        // Everything the run needs is checked before the writer creates any output
+        ListAlgorithm listAlgorithm = nodes ? options.getEnum("algo", ListAlgorithm.class, ListAlgorithm.MERGE) : null;
+        Path trace = !nodes && options.has("trace") ? options.requireFile("trace", "the trace to replay") : null;
+        Algorithm algorithm = nodes || trace != null ? null : options.getEnum("algo", Algorithm.class, Algorithm.QUICK);
+        if (png != null) {
+            Files.createDirectories(png);
+        }
+
+        ClipExporter exporter = new ClipExporter(width, height, png, gifFile != null);
+        long start = System.nanoTime();
+        Thread writer = exporter.startWriter(gifFile, fps);
+        long operations;
+        if (nodes) {
+            int nodeSize = Math.max(4, width / size);
+            int[] values = new InputGenerator(seed).setMaxValue(Math.max(1, height - nodeSize)).generate(distribution, size);
+            operations = exporter.renderNodes(listAlgorithm, values, nodeSize, (long) fps * seconds);
+        } else if (trace != null) {
+            operations = exporter.renderTrace(trace, (long) fps * seconds);
+        } else {
+            int[] input = new InputGenerator(seed).setMaxValue(height).generate(distribution, size);
+            operations = exporter.renderBars(algorithm, input, height, seed, (long) fps * seconds);
+        }
+        exporter.finish(writer);
+        System.out.printf("%,d frames of %,d operations in %.2f s on %d threads%n",
+                exporter.frames, operations, (System.nanoTime() - start) / 1e9, exporter.threads);
+    }
+
+    // Operations between two frames, so that the run fills the clip's frames
+    private static long perFrame(long operations, long frames) {
+        return Math.max(1, (operations + frames - 1) / frames);
+    }
+
+    // Bar clip of a live sort. Both passes seed the engine alike, so random pivots repeat the
+    // counted run exactly.
+    long renderBars(Algorithm algorithm, int[] input, int maxValue, long seed, long clipFrames) {
+        LongAdder total = new LongAdder(); // Parallel sorts report from several threads
+        new SortEngine(input.clone(), new SortListener() {
+            @Override
+            public void onSwap(int i, int j) {
+                total.increment();
+            }
+
+            @Override
+            public void onWrite(int index, int oldValue, int newValue) {
+                total.increment();
+            }
+        }).setSeed(seed).sort(algorithm);
+
+        int[] array = input.clone();
+        long every = perFrame(total.sum(), clipFrames);
+        AtomicLong done = new AtomicLong();
+        emitBars(array, maxValue);
+        new SortEngine(array, new SortListener() {
+            @Override
+            public void onSwap(int i, int j) {
+                step();
+            }
+
+            @Override
+            public void onWrite(int index, int oldValue, int newValue) {
+                step();
+            }
+
+            private void step() {
+                if (done.incrementAndGet() % every == 0) {
+                    emitBars(array, maxValue);
+                }
+            }
+        }).setSeed(seed).sort(algorithm);
+        if (done.get() % every != 0) {
+            emitBars(array, maxValue);
+        }
+        return total.sum();
+    }
+
+    // Bar clip of a trace recorded by the array view
+    long renderTrace(Path path, long clipFrames) throws IOException {
+        try (TraceReader trace = new TraceReader(path)) {
+            int[] array = new int[trace.getLength()];
+            trace.readInitial(array);
+            int maxValue = Math.max(1, trace.getMaxValue());
+            long every = perFrame(trace.getCount(), clipFrames);
+            emitBars(array, maxValue);
+            for (long k = 0; k < trace.getCount(); k++) {
+                OperationLog.apply(trace.operation(k), array);
+                if ((k + 1) % every == 0) {
+                    emitBars(array, maxValue);
+                }
+            }
+            if (trace.getCount() % every != 0) {
+                emitBars(array, maxValue);
+            }
+            return trace.getCount();
+        }
+    }
+
+    private void emitBars(int[] array, int maxValue) {
+        int[] snapshot = array.clone();
+        submit(() -> {
+            BarRenderer renderer = new BarRenderer(snapshot, maxValue, width, height, BACKGROUND);
+            renderer.flush(); // A new renderer is all dirty, so this draws every column
+            return renderer.getBuffer();
+        });
+    }
+
+    // Node clip of a list sort. Each frame highlights the nodes of the last event before it, and
+    // the last frame shows the list sorted.
+    long renderNodes(ListAlgorithm algorithm, int[] values, int nodeSize, long clipFrames) {
+        LongAdder total = new LongAdder();
+        new ArenaListSortEngine(ArenaList.fromValues(values), new ArenaListSortListener() {
+            @Override
+            public void onCompare(int a, int b) {
+                total.increment();
+            }
+
+            @Override
+            public void onSwap(int a, int b) {
+                total.increment();
+            }
+
+            @Override
+            public void onRelink(int node, int next) {
+                total.increment();
+            }
+        }).sort(algorithm);
+
+        ArenaList list = ArenaList.fromValues(values);
+        long every = perFrame(total.sum(), clipFrames);
+        emitNodes(list, nodeSize, -1, -1, NodeRenderer.UNSORTED);
+        ArenaListSortListener frames = new ArenaListSortListener() {
+            private long done;
+
+            @Override
+            public void onCompare(int a, int b) {
+                step(a, b, NodeRenderer.COMPARING);
+            }
+
+            @Override
+            public void onSwap(int a, int b) {
+                step(a, b, NodeRenderer.CHANGED);
+            }
+
+            @Override
+            public void onRelink(int node, int next) {
+                step(node, node, NodeRenderer.CHANGED);
+            }
+
+            private void step(int a, int b, int state) {
+                if (++done % every == 0) {
+                    emitNodes(list, nodeSize, list.position(a), list.position(b), state);
+                }
+            }
+        };
+        new ArenaListSortEngine(list, frames).sort(algorithm);
+        emitNodes(list, nodeSize, -1, -1, NodeRenderer.SORTED);
+        return total.sum();
+    }
+
+    // Snapshot of every node's position, value and pointer, with the nodes at positions a and b
+    // drawn in state and the others unsorted, or all of them in state when a is -1
+    private void emitNodes(ArenaList list, int nodeSize, int a, int b, int state) {
+        int n = list.size();
+        int[] position = new int[n];
+        int[] value = new int[n];
+        int[] nextPosition = new int[n];
+        int[] nextValue = new int[n];
+        for (int k = 0; k < n; k++) {
+            int next = list.next(k);
+            position[k] = list.position(k);
+            value[k] = list.value(k);
+            nextPosition[k] = next == ArenaList.NIL ? -1 : list.position(next);
+            nextValue[k] = next == ArenaList.NIL ? 0 : list.value(next);
+        }
+        submit(() -> {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics g = image.getGraphics();
+            try {
+                g.setColor(BACKGROUND);
+                g.fillRect(0, 0, width, height);
+                for (int k = 0; k < n; k++) {
+                    int p = position[k];
+                    int nodeState = a < 0 ? state : p == a || p == b ? state : NodeRenderer.UNSORTED;
+                    NodeRenderer.drawNode(g, nodeState, nodeSize, height, p, value[k], nextPosition[k], nextValue[k]);
+                }
+            } finally {
+                g.dispose();
+            }
+            return image;
+        });
+    }
+
+    // Queues one frame: rasterize and write its PNG on a pool thread, then hand it to the GIF writer
+    // Synchronized because a parallel sort's workers emit frames too: each frame's index has to
+    // match its place in the writer's queue
+    private synchronized void submit(Callable<BufferedImage> render) {
+        inFlight.acquireUninterruptibly();
+        int index = frames++;
+        pending.add(pool.submit(() -> {
+            BufferedImage image = indexed(render.call());
+            if (pngDirectory != null) {
+                writePng(image, pngDirectory.resolve(String.format("frame-%05d.png", index)));
+            }
+            return gif ? image : null;
+        }));
+    }
+
+    // Palette PNGs are a quarter of the pixels to deflate, and a light deflate level is several
+    // times faster than ImageIO's default of the strongest one for little extra size
+    private static void writePng(BufferedImage image, Path path) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(PNG_QUALITY);
+        Files.deleteIfExists(path);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(path.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Takes the frames in order, appending each to the GIF if there is one, and frees its slot
+    private Thread startWriter(Path gifFile, int fps) {
+        Thread writer = new Thread(() -> {
+            try (GifSequence sequence = gifFile == null ? null : new GifSequence(gifFile, fps, width, height)) {
+                while (true) {
+                    Future<BufferedImage> frame = pending.take();
+                    if (frame == end) break;
+                    try {
+                        BufferedImage image = frame.get();
+                        if (sequence != null && errors.isEmpty()) {
+                            sequence.append(image);
+                        }
+                    } catch (ExecutionException | IOException ex) {
+                        errors.add(ex); // Keep draining so the producer never blocks on a dead writer
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+            } catch (IOException | InterruptedException ex) {
+                errors.add(ex);
+            }
+        }, "clip-writer");
+        writer.start();
+        return writer;
+    }
+
+    // Waits for the last frame to be written, then reports the first frame that failed
+    private void finish(Thread writer) throws InterruptedException, IOException {
+        pending.add(end);
+        writer.join();
+        pool.shutdown();
+        if (!errors.isEmpty()) {
+            throw new IOException("Clip export failed", errors.get(0));
+        }
+    }
+
+    // Colors the views use, plus a 6x6x6 cube for anything else
+    private static IndexColorModel palette() {
+        List<Color> colors = new ArrayList<>(List.of(BACKGROUND, Color.BLACK, Color.WHITE,
+                new Color(0, 150, 255), new Color(150, 210, 255), new Color(0, 90, 160),
+                Color.YELLOW, Color.RED, Color.GREEN));
+        for (int r = 0; r < 6; r++) {
+            for (int g = 0; g < 6; g++) {
+                for (int b = 0; b < 6; b++) {
+                    colors.add(new Color(r * 51, g * 51, b * 51));
+                }
+            }
+        }
+        // GIF color tables come in powers of two; the unused tail stays black and is never chosen
+        byte[] red = new byte[256];
+        byte[] green = new byte[256];
+        byte[] blue = new byte[256];
+        for (int k = 0; k < colors.size(); k++) {
+            red[k] = (byte) colors.get(k).getRed();
+            green[k] = (byte) colors.get(k).getGreen();
+            blue[k] = (byte) colors.get(k).getBlue();
+        }
+        return new IndexColorModel(8, red.length, red, green, blue);
+    }
+
+    // Maps every pixel to its nearest palette entry without dithering, so the views' own colors
+    // come out exact. Each distinct color is looked up once per frame.
+    private static BufferedImage indexed(BufferedImage image) {
+        BufferedImage rgb = image;
+        if (rgb.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            rgb.getGraphics().drawImage(image, 0, 0, null);
+        }
+        int[] pixels = ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData();
+        BufferedImage result = new BufferedImage(rgb.getWidth(), rgb.getHeight(), BufferedImage.TYPE_BYTE_INDEXED, PALETTE);
+        byte[] indices = ((DataBufferByte) result.getRaster().getDataBuffer()).getData();
+        Map<Integer, Byte> nearest = new HashMap<>();
+        int lastPixel = ~pixels[0];
+        byte lastIndex = 0;
+        for (int k = 0; k < pixels.length; k++) {
+            int pixel = pixels[k] & 0xFFFFFF;
+            if (pixel != lastPixel) {
+                lastPixel = pixel;
+                lastIndex = nearest.computeIfAbsent(pixel, ClipExporter::nearestIndex);
+            }
+            indices[k] = lastIndex;
+        }
+        return result;
+    }
+
+    private static byte nearestIndex(int pixel) {
+        int r = pixel >> 16 & 0xFF;
+        int g = pixel >> 8 & 0xFF;
+        int b = pixel & 0xFF;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int k = 0; k < PALETTE.getMapSize(); k++) {
+            int dr = PALETTE.getRed(k) - r;
+            int dg = PALETTE.getGreen(k) - g;
+            int db = PALETTE.getBlue(k) - b;
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < bestDistance) {
+                best = k;
+                bestDistance = distance;
+            }
+        }
+        return (byte) best;
+    }
+
+    // An animated GIF that loops forever, written a frame at a time through ImageIO. After the first
+    // frame only the rectangle that changed is stored, drawn over the frame before it, which keeps
+    // both the file and the LZW work to what the sort actually touched.
+    private static final class GifSequence implements AutoCloseable {
+        private final ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        private final ImageOutputStream output;
+        private final String delay; // Hundredths of a second, the only unit GIF has
+        private byte[] previous;
+
+        GifSequence(Path path, int fps, int width, int height) throws IOException {
+            Files.deleteIfExists(path);
+            output = ImageIO.createImageOutputStream(path.toFile());
+            writer.setOutput(output);
+            writer.prepareWriteSequence(streamMetadata(width, height));
+            delay = Integer.toString(Math.max(1, Math.round(100f / fps)));
+        }
+
+        // image is TYPE_BYTE_INDEXED on the palette and the same size as the first one
+        void append(BufferedImage image) throws IOException {
+            byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            Rectangle changed = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+            if (previous != null) {
+                changed = changedBounds(previous, pixels, image.getWidth());
+            }
+            BufferedImage part = image;
+            if (changed.width != image.getWidth() || changed.height != image.getHeight()) {
+                part = new BufferedImage(changed.width, changed.height, BufferedImage.TYPE_BYTE_INDEXED, PALETTE);
+                byte[] partPixels = ((DataBufferByte) part.getRaster().getDataBuffer()).getData();
+                for (int y = 0; y < changed.height; y++) {
+                    System.arraycopy(pixels, (changed.y + y) * image.getWidth() + changed.x,
+                            partPixels, y * changed.width, changed.width);
+                }
+            }
+
+            IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(part), null);
+            String format = metadata.getNativeMetadataFormatName();
+            IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+            IIOMetadataNode local = child(root, "LocalColorTable");
+            root.removeChild(local); // Keep to the global table
+            IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+            descriptor.setAttribute("imageLeftPosition", Integer.toString(changed.x));
+            descriptor.setAttribute("imageTopPosition", Integer.toString(changed.y));
+            IIOMetadataNode control = child(root, "GraphicControlExtension");
+            control.setAttribute("disposalMethod", "doNotDispose");
+            control.setAttribute("userInputFlag", "FALSE");
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("delayTime", delay);
+            control.setAttribute("transparentColorIndex", "0");
+            if (previous == null) {
+                IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+                loop.setAttribute("applicationID", "NETSCAPE");
+                loop.setAttribute("authenticationCode", "2.0");
+                loop.setUserObject(new byte[]{1, 0, 0}); // Loop count 0: forever
+                child(root, "ApplicationExtensions").appendChild(loop);
+            }
+            metadata.setFromTree(format, root);
+            writer.writeToSequence(new IIOImage(part, null, metadata), null);
+            previous = pixels;
+        }
+
+        // The palette goes out once as the global color table, which every frame then uses
+        private IIOMetadata streamMetadata(int width, int height) throws IOException {
+            IIOMetadata metadata = writer.getDefaultStreamMetadata(null);
+            String format = metadata.getNativeMetadataFormatName();
+            IIOMetadataNode root = new IIOMetadataNode(format);
+            IIOMetadataNode screen = new IIOMetadataNode("LogicalScreenDescriptor");
+            screen.setAttribute("logicalScreenWidth", Integer.toString(width));
+            screen.setAttribute("logicalScreenHeight", Integer.toString(height));
+            screen.setAttribute("colorResolution", "8");
+            screen.setAttribute("pixelAspectRatio", "0");
+            root.appendChild(screen);
+            IIOMetadataNode table = new IIOMetadataNode("GlobalColorTable");
+            table.setAttribute("sizeOfGlobalColorTable", Integer.toString(PALETTE.getMapSize()));
+            table.setAttribute("backgroundColorIndex", "0");
+            table.setAttribute("sortFlag", "FALSE");
+            for (int k = 0; k < PALETTE.getMapSize(); k++) {
+                IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+                entry.setAttribute("index", Integer.toString(k));
+                entry.setAttribute("red", Integer.toString(PALETTE.getRed(k)));
+                entry.setAttribute("green", Integer.toString(PALETTE.getGreen(k)));
+                entry.setAttribute("blue", Integer.toString(PALETTE.getBlue(k)));
+                table.appendChild(entry);
+            }
+            root.appendChild(table);
+            metadata.mergeTree(format, root);
+            return metadata;
+        }
+
+        // Smallest rectangle holding every pixel that differs, or one pixel when none does, since
+        // the frame is still needed for its delay
+        private static Rectangle changedBounds(byte[] before, byte[] after, int width) {
+            int height = after.length / width;
+            int top = 0;
+            while (top < height && rowEquals(before, after, top * width, width)) {
+                top++;
+            }
+            if (top == height) {
+                return new Rectangle(0, 0, 1, 1);
+            }
+            int bottom = height - 1;
+            while (rowEquals(before, after, bottom * width, width)) {
+                bottom--;
+            }
+            int left = width;
+            int right = -1;
+            for (int y = top; y <= bottom; y++) {
+                int row = y * width;
+                for (int x = 0; x < left; x++) {
+                    if (before[row + x] != after[row + x]) {
+                        left = x;
+                        break;
+                    }
+                }
+                for (int x = width - 1; x > right; x--) {
+                    if (before[row + x] != after[row + x]) {
+                        right = x;
+                        break;
+                    }
+                }
+            }
+            return new Rectangle(left, top, right - left + 1, bottom - top + 1);
+        }
+
+        private static boolean rowEquals(byte[] before, byte[] after, int from, int width) {
+            return Arrays.equals(before, from, from + width, after, from, from + width);
+        }
+
+        private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+            for (int k = 0; k < root.getLength(); k++) {
+                if (root.item(k).getNodeName().equals(name)) {
+                    return (IIOMetadataNode) root.item(k);
+                }
+            }
+            IIOMetadataNode node = new IIOMetadataNode(name);
+            root.appendChild(node);
+            return node;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.endWriteSequence();
+            writer.dispose();
+            output.close();
+        }
+    }
+}
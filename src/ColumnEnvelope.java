@@ -0,0 +1,101 @@
+// Min/max/mean of each slice of an array too large to give every element its own bar. Slice c
+// covers the indices i with i * columns / n == c. Writes update the sums in O(1) and widen the
+// bounds in O(1); only overwriting a slice's current min or max leaves its bounds loose, which
+// marks the slice stale until rescan() tightens it again.
+//
+// The sort thread stores each value before it reports the write, so a rescan running between the
+// two already sees the new value. That is why rescan() touches only the bounds, which it sets
+// from what the array holds and which the late report can only widen or mark stale again; the
+// sums are kept by the reported deltas alone, each applied exactly once. rebuild() recomputes
+// the sums too and is only for arrays that changed without reports, while nothing writes to them.
+class ColumnEnvelope {
+
+    private final int[] array;
+    private final int columns;
+    private final int[] min;
+    private final int[] max;
+    private final long[] sum;
+    private final boolean[] stale;
+
+    ColumnEnvelope(int[] array, int columns) {
+        this.array = array;
+        this.columns = columns;
+        this.min = new int[columns];
+        this.max = new int[columns];
+        this.sum = new long[columns];
+        this.stale = new boolean[columns];
+        rebuild();
+    }
+
+    int columnOf(int index) {
+        return (int) ((long) index * columns / array.length);
+    }
+
+    // First index of slice c
+    int start(int c) {
+        return (int) (((long) c * array.length + columns - 1) / columns);
+    }
+
+    int count(int c) {
+        return start(c + 1) - start(c);
+    }
+
+    int min(int c) {
+        return min[c];
+    }
+
+    int max(int c) {
+        return max[c];
+    }
+
+    long mean(int c) {
+        return sum[c] / count(c);
+    }
+
+    boolean isStale(int c) {
+        return stale[c];
+    }
+
+    void update(int index, int oldValue, int newValue) {
+        int c = columnOf(index);
+        sum[c] += (long) newValue - oldValue; // In long: values may span more than 2^31
+        if (newValue < min[c]) {
+            min[c] = newValue;
+        } else if (oldValue == min[c] && newValue > oldValue) {
+            stale[c] = true;
+        }
+        if (newValue > max[c]) {
+            max[c] = newValue;
+        } else if (oldValue == max[c] && newValue < oldValue) {
+            stale[c] = true;
+        }
+    }
+
+    // Recomputes the bounds of slice c from the array and returns how many elements that read
+    int rescan(int c) {
+        int from = start(c);
+        int to = start(c + 1);
+        int lo = Integer.MAX_VALUE;
+        int hi = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            int value = array[i];
+            lo = Math.min(lo, value);
+            hi = Math.max(hi, value);
+        }
+        min[c] = lo;
+        max[c] = hi;
+        stale[c] = false;
+        return to - from;
+    }
+
+    void rebuild() {
+        for (int c = 0; c < columns; c++) {
+            rescan(c);
+            long total = 0;
+            for (int i = start(c), to = start(c + 1); i < to; i++) {
+                total += array[i];
+            }
+            sum[c] = total;
+        }
+    }
+}
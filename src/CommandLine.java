@@ -0,0 +1,149 @@
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// The --option value arguments of the headless tools. Options the tool does not know, and values
+// that are missing, malformed or name no constant, throw IllegalArgumentException with a message
+// saying which option is wrong; run() turns that, or a file that does not exist, into the
+// message and the tool's usage text on standard error and exit status 2, instead of a stack trace.
+final class CommandLine {
+
+    static final int USAGE_ERROR = 2; // Exit status for arguments the tool cannot use
+
+    // Body of a tool's main method
+    interface Tool {
+        void run(CommandLine options) throws Exception;
+    }
+
+    private final Map<String, String> options = new HashMap<>();
+
+    private CommandLine(String[] args, List<String> keys) {
+        for (int k = 0; k < args.length; k += 2) {
+            if (!args[k].startsWith("--") || k + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + args[k]);
+            }
+            String key = args[k].substring(2);
+            if (!keys.contains(key)) {
+                throw new IllegalArgumentException("Unknown option " + args[k]);
+            }
+            options.put(key, args[k + 1]);
+        }
+    }
+
+    // Runs tool with the options in args, each of which has to be one of keys
+    static void run(String[] args, String usage, List<String> keys, Tool tool) throws Exception {
+        try {
+            tool.run(new CommandLine(args, keys));
+        } catch (IllegalArgumentException | NoSuchFileException e) {
+            String message = e instanceof NoSuchFileException ? "No such file: " + e.getMessage() : e.getMessage();
+            System.err.println(message);
+            System.err.println(usage);
+            System.exit(USAGE_ERROR);
+        }
+    }
+
+    boolean has(String key) {
+        return options.containsKey(key);
+    }
+
+    String get(String key, String fallback) {
+        return options.getOrDefault(key, fallback);
+    }
+
+    // The value of an option the tool cannot do without; what says what it is for
+    String require(String key, String what) {
+        if (!options.containsKey(key)) {
+            throw new IllegalArgumentException("Give " + what + " with --" + key);
+        }
+        return options.get(key);
+    }
+
+    Path getPath(String key) {
+        return Paths.get(options.get(key));
+    }
+
+    // An option naming a file that has to exist
+    Path requireFile(String key, String what) throws NoSuchFileException {
+        Path path = Paths.get(require(key, what));
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return path;
+    }
+
+    int getInt(String key, int fallback) {
+        return getInt(key, fallback, Integer.MIN_VALUE);
+    }
+
+    int getInt(String key, int fallback, int min) {
+        return (int) getLong(key, fallback, min, Integer.MAX_VALUE);
+    }
+
+    long getLong(String key, long fallback) {
+        return getLong(key, fallback, Long.MIN_VALUE);
+    }
+
+    long getLong(String key, long fallback, long min) {
+        return getLong(key, fallback, min, Long.MAX_VALUE);
+    }
+
+    long getLong(String key, long fallback, long min, long max) {
+        if (!options.containsKey(key)) {
+            return fallback;
+        }
+        long value;
+        try {
+            value = Long.parseLong(options.get(key).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " takes a whole number, got " + options.get(key));
+        }
+        if (value < min) {
+            throw new IllegalArgumentException("--" + key + " is at least " + min + ", got " + value);
+        }
+        if (value > max) {
+            throw new IllegalArgumentException("--" + key + " is at most " + max + ", got " + value);
+        }
+        return value;
+    }
+
+    boolean getBoolean(String key, boolean fallback) {
+        String value = options.getOrDefault(key, String.valueOf(fallback)).trim();
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("--" + key + " takes true or false, got " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    // "heap", "lsd-radix" and "LSD_RADIX" all name the constant LSD_RADIX
+    <E extends Enum<E>> E getEnum(String key, Class<E> type, E fallback) {
+        if (!options.containsKey(key)) {
+            return fallback;
+        }
+        String name = options.get(key).trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown --" + key + " " + options.get(key) + ", choose one of "
+                + Arrays.toString(type.getEnumConstants()));
+    }
+
+    ByteOrder getByteOrder(String key) {
+        String value = options.getOrDefault(key, "big").trim();
+        if (value.equalsIgnoreCase("big")) {
+            return ByteOrder.BIG_ENDIAN;
+        }
+        if (value.equalsIgnoreCase("little")) {
+            return ByteOrder.LITTLE_ENDIAN;
+        }
+        throw new IllegalArgumentException("--" + key + " takes big or little, got " + value);
+    }
+}
@@ -0,0 +1,75 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+// The counters overlay both visualizers draw in their top left corner, and the CSV export of
+// their finished runs
+final class CounterHud {
+
+    private static final int X = 10;
+    private static final int Y = 10;
+    private static final int MIN_WIDTH = 300;
+    private static final int LINE_HEIGHT = 16;
+    private static final int PADDING = 8;
+    private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+
+    private CounterHud() {
+    }
+
+    // Area a frame repaints while the counters change; the box only grows past it when a
+    // finished run adds a wide summary line, and that comes with a full repaint
+    static Rectangle bounds() {
+        return new Rectangle(X, Y, MIN_WIDTH, 7 * LINE_HEIGHT + 2 * PADDING);
+    }
+
+    // Draws title, the counts and CPU and wall time, and summary below them if there is one
+    static void draw(Graphics g, String title, SortCounters.Snapshot counts, String summary) {
+        List<String> lines = new ArrayList<>();
+        lines.add(title);
+        lines.add(String.format("Comparisons: %,d", counts.comparisons));
+        lines.add(String.format("Swaps: %,d", counts.swaps));
+        lines.add(String.format("Writes: %,d", counts.writes));
+        lines.add(String.format("Aux memory: %,d bytes", counts.auxBytes));
+        lines.add(String.format("CPU: %,.1f ms  Wall: %,.1f ms", counts.cpuNanos / 1e6, counts.wallNanos / 1e6));
+        if (summary != null) {
+            lines.add(summary);
+        }
+        FontMetrics metrics = g.getFontMetrics();
+        int width = MIN_WIDTH;
+        for (String line : lines) {
+            width = Math.max(width, metrics.stringWidth(line) + 2 * PADDING);
+        }
+        int height = Math.max(bounds().height, lines.size() * LINE_HEIGHT + 2 * PADDING);
+        g.setColor(BACKGROUND);
+        g.fillRect(X, Y, width, height);
+        g.setColor(Color.WHITE);
+        for (int k = 0; k < lines.size(); k++) {
+            g.drawString(lines.get(k), X + PADDING, Y + PADDING + (k + 1) * LINE_HEIGHT - 4);
+        }
+    }
+
+    // Asks for a file and writes SortCounters.CSV_HEADER followed by rows to it
+    static void exportCsv(Component parent, List<String> rows) {
+        if (rows.isEmpty()) {
+            JOptionPane.showMessageDialog(parent, "No finished runs to export yet.");
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("sort-runs.csv"));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) return;
+        List<String> lines = new ArrayList<>();
+        lines.add(SortCounters.CSV_HEADER);
+        lines.addAll(rows);
+        try {
+            Files.write(chooser.getSelectedFile().toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(parent, "Could not write " + chooser.getSelectedFile() + ": " + ex.getMessage(),
+                    "Export CSV", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Sorts a binary int file of any size within a fixed memory budget. The input is read a chunk at
+// a time, each chunk is sorted in memory with any Algorithm and spilled to a temporary run file,
+// and the runs are merged up to fanIn at a time through a min-heap of their heads. A merge reads
+// each of its runs and writes its output through memory-mapped FileChannel windows, so while
+// merging the Java heap holds just the min-heap and a cursor per run. When there are more runs
+// than the fan-in, merge passes each write fewer, longer runs until one pass can write the output.
+//
+// Half of the budget holds the chunk and the other half is left for the buffers the chunk's sort
+// allocates, a merge sort's being as large again. The mapped windows of a merge share that same
+// half. Runs are written in the native byte order and the output in the input's.
+//
+// Usage: java -cp src ExternalSort --input FILE --output FILE [--algo NAME] [--memory MB]
+//            [--fan-in K] [--byte-order big|little] [--temp DIR] [--verify true|false]
+//        java -cp src ExternalSort --generate N --output FILE [--seed S] [--byte-order big|little]
+// --generate writes N random ints, e.g. a file larger than the heap to try the sort on.
+public class ExternalSort {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -cp src ExternalSort --input FILE --output FILE [--algo NAME] [--memory MB]",
+            "           [--fan-in K] [--byte-order big|little] [--temp DIR] [--verify true|false]",
+            "       java -cp src ExternalSort --generate N --output FILE [--seed S] [--byte-order big|little]");
+    private static final List<String> OPTIONS = List.of("input", "output", "algo", "memory", "fan-in", "byte-order",
+            "temp", "verify", "generate", "seed");
+
+    private static final long MIN_WINDOW = 1 << 16; // Bytes of a mapped window, a multiple of the page size
+    private static final long MAX_WINDOW = 1 << 24;
+    private static final int BUFFER_SIZE = 1 << 20; // Bytes written at a time when spilling a chunk
+    private static final int GENERATE_CHUNK = 1 << 20; // Ints generated at a time
+
+    private final ExternalSortListener listener;
+    private Algorithm algorithm = Algorithm.INTRO;
+    private long memory = 64L << 20;
+    private int fanIn = 64;
+    private ByteOrder order = ByteOrder.BIG_ENDIAN;
+    private Path tempDirectory; // Null for the system's
+    private final List<Path> temporary = new ArrayList<>(); // Run files not yet deleted
+    private int runs; // Ids handed out so far
+    private int chunks;
+    private int passes;
+    private long chunkNanos;
+    private long mergeNanos;
+
+    public ExternalSort() {
+        this(ExternalSortListener.NONE);
+    }
+
+    public ExternalSort(ExternalSortListener listener) {
+        this.listener = listener;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public ExternalSort setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    public long getMemory() {
+        return memory;
+    }
+
+    // Bytes the sort may use for the chunk and its sort's buffers, and for the mapped windows
+    public ExternalSort setMemory(long memory) {
+        if (memory < 2 * MIN_WINDOW) {
+            throw new IllegalArgumentException("A memory budget needs at least " + 2 * MIN_WINDOW + " bytes: " + memory);
+        }
+        this.memory = memory;
+        return this;
+    }
+
+    public int getFanIn() {
+        return fanIn;
+    }
+
+    public ExternalSort setFanIn(int fanIn) {
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("A merge needs a fan-in of at least 2: " + fanIn);
+        }
+        this.fanIn = fanIn;
+        return this;
+    }
+
+    public ByteOrder getByteOrder() {
+        return order;
+    }
+
+    public ExternalSort setByteOrder(ByteOrder order) {
+        this.order = order;
+        return this;
+    }
+
+    public ExternalSort setTempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    // Ints sorted in memory at a time
+    public int getChunkLength() {
+        return (int) Math.min(IntFiles.MAX_LENGTH, memory / 2 / Integer.BYTES);
+    }
+
+    // Bytes of each mapped window, so that a full merge's windows fit in half the budget
+    public long getWindowSize() {
+        long window = memory / 2 / (fanIn + 1);
+        return Math.max(MIN_WINDOW, Math.min(MAX_WINDOW, window / MIN_WINDOW * MIN_WINDOW));
+    }
+
+    // Statistics of the last sort
+    public int getChunks() {
+        return chunks;
+    }
+
+    public int getPasses() {
+        return passes;
+    }
+
+    public long getChunkNanos() {
+        return chunkNanos;
+    }
+
+    public long getMergeNanos() {
+        return mergeNanos;
+    }
+
+    // A run file, with its id for the listener and its length in ints
+    private static final class Run {
+        final int id;
+        final Path path;
+        final long length;
+
+        Run(int id, Path path, long length) {
+            this.id = id;
+            this.path = path;
+            this.length = length;
+        }
+    }
+
+    public void sort(Path input, Path output) throws IOException {
+        runs = 0;
+        chunks = 0;
+        passes = 0;
+        try {
+            long start = System.nanoTime();
+            List<Run> level = spillChunks(input);
+            chunkNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            long total = 0;
+            for (Run run : level) {
+                total += run.length;
+            }
+            while (level.size() > fanIn) {
+                passes++;
+                List<Run> next = new ArrayList<>();
+                for (int from = 0; from < level.size(); from += fanIn) {
+                    List<Run> group = level.subList(from, Math.min(from + fanIn, level.size()));
+                    long length = 0;
+                    for (Run run : group) {
+                        length += run.length;
+                    }
+                    Run merged = startRun(passes, length, newTemporary());
+                    merge(group, merged, ByteOrder.nativeOrder());
+                    next.add(merged);
+                }
+                level = next;
+            }
+            passes++;
+            merge(level, startRun(passes, total, output), order);
+            mergeNanos = System.nanoTime() - start;
+        } finally {
+            for (Path path : temporary) {
+                Files.deleteIfExists(path);
+            }
+            temporary.clear();
+        }
+    }
+
+    // Sorts the input a chunk at a time into runs of pass 0
+    private List<Run> spillChunks(Path input) throws IOException {
+        List<Run> spilled = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IOException(input + " is " + size + " bytes, not a whole number of ints");
+            }
+            long total = size / Integer.BYTES;
+            int chunk = getChunkLength();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+            int[] array = null; // Reused for every full chunk
+            for (long first = 0; first < total; first += chunk) {
+                int length = (int) Math.min(chunk, total - first);
+                if (array == null || array.length != length) {
+                    array = new int[length]; // Once, and again for a shorter last chunk
+                }
+                IntFiles.read(channel, first, array, 0, length, order);
+                Run run = startRun(0, length, newTemporary());
+                new SortEngine(array).sort(algorithm);
+                try (FileChannel out = FileChannel.open(run.path, StandardOpenOption.WRITE)) {
+                    IntFiles.write(out, buffer, array, 0, length);
+                }
+                listener.onRunWritten(run.id, length);
+                spilled.add(run);
+                chunks++;
+            }
+        }
+        return spilled;
+    }
+
+    private Path newTemporary() throws IOException {
+        Path path = tempDirectory == null
+                ? Files.createTempFile("sort-run", ".bin") : Files.createTempFile(tempDirectory, "sort-run", ".bin");
+        temporary.add(path);
+        return path;
+    }
+
+    private Run startRun(int pass, long length, Path path) {
+        Run run = new Run(runs++, path, length);
+        listener.onRunStarted(run.id, pass, length);
+        return run;
+    }
+
+    // Merges the sources into target, written in targetOrder, and deletes the sources' files
+    private void merge(List<Run> sources, Run target, ByteOrder targetOrder) throws IOException {
+        int[] ids = new int[sources.size()];
+        for (int k = 0; k < ids.length; k++) {
+            ids[k] = sources.get(k).id;
+        }
+        listener.onMerge(ids, target.id);
+        long window = getWindowSize();
+        Cursor[] cursors = new Cursor[sources.size()];
+        try (FileChannel out = FileChannel.open(target.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int[] heap = new int[cursors.length]; // Indices of the cursors with ints left, smallest head first
+            int size = 0;
+            for (int k = 0; k < cursors.length; k++) {
+                cursors[k] = new Cursor(sources.get(k), window);
+                if (cursors[k].advance()) {
+                    heap[size++] = k;
+                }
+            }
+            for (int k = size / 2 - 1; k >= 0; k--) {
+                siftDown(cursors, heap, size, k);
+            }
+            IntBuffer buffer = null;
+            long written = 0;
+            while (size > 0) {
+                if (buffer == null || !buffer.hasRemaining()) {
+                    listener.onRunWritten(target.id, written);
+                    long bytes = Math.min(window, (target.length - written) * Integer.BYTES);
+                    buffer = out.map(FileChannel.MapMode.READ_WRITE, written * Integer.BYTES, bytes)
+                            .order(targetOrder).asIntBuffer();
+                }
+                Cursor top = cursors[heap[0]];
+                buffer.put(top.head);
+                written++;
+                if (!top.advance()) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(cursors, heap, size, 0);
+            }
+            listener.onRunWritten(target.id, written);
+        } finally {
+            for (Cursor cursor : cursors) {
+                if (cursor != null) {
+                    cursor.channel.close();
+                }
+            }
+        }
+        for (Run source : sources) {
+            Files.deleteIfExists(source.path);
+            temporary.remove(source.path);
+        }
+    }
+
+    private static void siftDown(Cursor[] cursors, int[] heap, int size, int i) {
+        int moving = heap[i];
+        int value = cursors[moving].head;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && cursors[heap[child + 1]].head < cursors[heap[child]].head) {
+                child++;
+            }
+            if (cursors[heap[child]].head >= value) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = moving;
+    }
+
+    // Reads one run through a mapped window that moves along it
+    private final class Cursor {
+        final Run run;
+        final FileChannel channel;
+        final long window;
+        IntBuffer buffer;
+        long position; // Ints taken so far, head included
+        int head;
+
+        Cursor(Run run, long window) throws IOException {
+            this.run = run;
+            this.channel = FileChannel.open(run.path, StandardOpenOption.READ);
+            this.window = window;
+        }
+
+        // Moves head to the next int, returning false at the end of the run
+        boolean advance() throws IOException {
+            if (position == run.length) {
+                listener.onRunRead(run.id, position);
+                return false;
+            }
+            if (buffer == null || !buffer.hasRemaining()) {
+                listener.onRunRead(run.id, position);
+                long bytes = Math.min(window, (run.length - position) * Integer.BYTES);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position * Integer.BYTES, bytes)
+                        .order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+            head = buffer.get();
+            position++;
+            return true;
+        }
+    }
+
+    // Whether the binary int file at path is in ascending order, read a window at a time
+    public static boolean isSorted(Path path, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long total = channel.size() / Integer.BYTES;
+            int[] chunk = new int[(int) Math.min(total, GENERATE_CHUNK)];
+            int previous = Integer.MIN_VALUE;
+            for (long first = 0; first < total; first += chunk.length) {
+                int length = (int) Math.min(chunk.length, total - first);
+                IntFiles.read(channel, first, chunk, 0, length, order);
+                for (int k = 0; k < length; k++) {
+                    if (chunk[k] < previous) {
+                        return false;
+                    }
+                    previous = chunk[k];
+                }
+            }
+            return true;
+        }
+    }
+
+    // Writes count random ints to path, drawing each chunk from its own split of the seed
+    public static void generate(Path path, long count, long seed, ByteOrder order) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] chunk = new int[(int) Math.min(count, GENERATE_CHUNK)];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(order);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long first = 0; first < count; first += chunk.length) {
+                int length = (int) Math.min(chunk.length, count - first);
+                SplittableRandom split = random.split();
+                for (int k = 0; k < length; k++) {
+                    chunk[k] = split.nextInt();
+                }
+                IntFiles.write(channel, buffer, chunk, 0, length);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLine.run(args, USAGE, OPTIONS, ExternalSort::run);
+    }
+
+    private static void run(CommandLine options) throws IOException {
+        Path output = Paths.get(options.require("output", "the file to write"));
+        ByteOrder order = options.getByteOrder("byte-order");
+        if (options.has("generate")) {
+            long count = options.getLong("generate", 0, 0);
+            long start = System.nanoTime();
+            generate(output, count, options.getLong("seed", 42), order);
+            System.out.printf("Wrote %,d random ints to %s in %.2f s%n", count, output, (System.nanoTime() - start) / 1e9);
+            return;
+        }
+        Path input = options.requireFile("input", "the file to sort");
+        long memory = options.getLong("memory", 64, 1, Long.MAX_VALUE >> 20); // MiB, as many as a long holds in bytes
+        ExternalSort sort = new ExternalSort()
+                .setAlgorithm(options.getEnum("algo", Algorithm.class, Algorithm.INTRO))
+                .setMemory(memory << 20)
+                .setFanIn(options.getInt("fan-in", 64))
+                .setByteOrder(order);
+        if (options.has("temp")) {
+            sort.setTempDirectory(options.getPath("temp"));
+        }
+        long total = Files.size(input) / Integer.BYTES;
+        System.out.printf("Sorting %,d ints (%,.1f MiB) with %s in %,d MiB: chunks of %,d ints, fan-in %d, %,d KiB windows%n",
+                total, total * 4.0 / (1 << 20), sort.getAlgorithm().getDisplayName(), sort.getMemory() >> 20,
+                sort.getChunkLength(), sort.getFanIn(), sort.getWindowSize() >> 10);
+        sort.sort(input, output);
+        System.out.printf("%,d runs sorted in %.2f s, merged in %d pass%s in %.2f s, %.1f MiB/s overall%n",
+                sort.getChunks(), sort.getChunkNanos() / 1e9, sort.getPasses(), sort.getPasses() == 1 ? "" : "es",
+                sort.getMergeNanos() / 1e9, total * 4.0 / (1 << 20) / ((sort.getChunkNanos() + sort.getMergeNanos()) / 1e9));
+        if (options.getBoolean("verify", true)) {
+            boolean sorted = isSorted(output, order);
+            System.out.println(sorted ? "Output verified in order" : "Output is NOT in order");
+            if (!sorted) {
+                System.exit(1);
+            }
+        }
+    }
+}
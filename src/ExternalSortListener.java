@@ -0,0 +1,19 @@
+// Receives the progress of an ExternalSort at the level of its runs. Runs are numbered in the
+// order they are started; pass 0 holds the sorted chunks of the input, and every merge writes one
+// run of the next pass, the last of which is the output file. Every callback has an empty
+// default, and all of them come from the thread that called sort.
+public interface ExternalSortListener {
+    ExternalSortListener NONE = new ExternalSortListener() { };
+
+    // Run run of pass pass, length ints long, is being produced: a chunk being sorted or a merge target
+    default void onRunStarted(int run, int pass, long length) { }
+
+    // The first written ints of run are on disk
+    default void onRunWritten(int run, long written) { }
+
+    // The sources are about to be merged into target
+    default void onMerge(int[] sources, int target) { }
+
+    // The merge has taken the first consumed ints of run
+    default void onRunRead(int run, long consumed) { }
+}
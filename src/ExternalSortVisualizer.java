@@ -0,0 +1,334 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Run-level view of an ExternalSort on real files. Start writes a random input file to a
+// temporary directory and sorts it with the chosen algorithm, memory budget and fan-in at full
+// speed; nothing is paced, so what the view shows is the sort's actual disk and memory behavior.
+// Each pass is one row: the sorted chunks of the input first, then the runs every merge pass
+// writes, each run as wide as its share of the input. A run fills in as it is written and darkens
+// from the left as a merge reads it; the runs of the merge in progress are outlined.
+public class ExternalSortVisualizer extends JPanel implements ActionListener, ExternalSortListener {
+
+    private static final int[] SIZE_CHOICES = {1_000_000, 10_000_000, 50_000_000};
+    private static final int[] MEMORY_CHOICES = {1, 4, 16, 64}; // MiB
+    private static final int[] FAN_IN_CHOICES = {2, 4, 8, 64};
+    private static final int WIDTH = 1000;
+    private static final int LABEL_WIDTH = 70;
+    private static final int MARGIN = 10;
+    private static final int HEADER_HEIGHT = 70; // Settings and status above the rows
+    private static final int ROW_HEIGHT = 44;
+    private static final int ROW_GAP = 12;
+    private static final int MAX_ROWS = 10; // Rows that fit without shrinking
+    private static final int FPS = 30;
+    private static final Color BACKGROUND = new Color(30, 30, 30);
+    private static final Color SORTING = new Color(230, 160, 40); // A chunk being sorted in memory
+    private static final Color WRITTEN = new Color(66, 139, 202);
+    private static final Color READ = new Color(40, 60, 80); // Ints a merge has taken from a run
+    private static final Color ACTIVE = Color.YELLOW;
+
+    // What the view knows of one run; the sorting thread writes, the event thread reads
+    private static final class RunView {
+        final int pass;
+        final long offset; // Ints before this run in its pass
+        final long length;
+        volatile long written;
+        volatile long consumed;
+        volatile boolean active;
+
+        RunView(int pass, long offset, long length) {
+            this.pass = pass;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final JPanel board = new JPanel() {
+        @Override
+        public void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            paintRuns(g);
+        }
+    };
+    private final JButton startButton = new JButton("Start");
+    private final JButton stopButton = new JButton("Stop");
+    private final JButton pauseButton = new JButton("Pause");
+    private final JButton mainMenu = new JButton("Main Menu");
+    private final JComboBox<String> algorithmBox = new JComboBox<>();
+    private final JComboBox<String> sizeBox = new JComboBox<>();
+    private final JComboBox<String> memoryBox = new JComboBox<>();
+    private final JComboBox<String> fanInBox = new JComboBox<>();
+    private final Timer frameTimer = new Timer(1000 / FPS, e -> board.repaint());
+
+    private final List<RunView> runs = new CopyOnWriteArrayList<>(); // Indexed by run id
+    private long[] passFill = new long[1]; // Sorting thread only: ints started so far in each pass
+    private int[] merging = new int[0]; // Sorting thread only: runs of the merge in progress
+    private volatile long total; // Ints in the input
+    private volatile int chunkLength;
+    private volatile long intsRead;
+    private volatile long intsWritten;
+    private volatile String settings = "";
+    private volatile String status = "Press Start to sort a file larger than the memory budget";
+    private RunController controller = new RunController();
+    private SortWorker worker;
+
+    public ExternalSortVisualizer() {
+        setBackground(BACKGROUND);
+        setupGUI();
+        frameTimer.start();
+    }
+
+    private void setupGUI() {
+        setLayout(new BorderLayout());
+        board.setBackground(BACKGROUND);
+        board.setPreferredSize(new Dimension(WIDTH, HEADER_HEIGHT + MAX_ROWS * (ROW_HEIGHT + ROW_GAP)));
+
+        for (Algorithm algorithm : Algorithm.values()) {
+            algorithmBox.addItem(algorithm.getDisplayName());
+        }
+        algorithmBox.setSelectedItem(Algorithm.INTRO.getDisplayName());
+        for (int size : SIZE_CHOICES) {
+            sizeBox.addItem(String.format("%,d ints", size));
+        }
+        sizeBox.setSelectedIndex(1);
+        for (int memory : MEMORY_CHOICES) {
+            memoryBox.addItem(memory + " MiB budget");
+        }
+        memoryBox.setSelectedIndex(1);
+        for (int fanIn : FAN_IN_CHOICES) {
+            fanInBox.addItem("Fan-in " + fanIn);
+        }
+        fanInBox.setSelectedIndex(1);
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setLayout(new GridLayout(2, 4, 10, 10));
+        buttonPanel.setBackground(new Color(40, 40, 40));
+        startButton.addActionListener(this);
+        stopButton.addActionListener(this);
+        pauseButton.addActionListener(this);
+        mainMenu.addActionListener(this);
+        styleButton(startButton);
+        styleButton(stopButton);
+        styleButton(pauseButton);
+        styleButton(mainMenu);
+        buttonPanel.add(startButton);
+        buttonPanel.add(stopButton);
+        buttonPanel.add(pauseButton);
+        buttonPanel.add(mainMenu);
+        buttonPanel.add(algorithmBox);
+        buttonPanel.add(sizeBox);
+        buttonPanel.add(memoryBox);
+        buttonPanel.add(fanInBox);
+
+        add(board, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void styleButton(JButton button) {
+        button.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        button.setForeground(Color.WHITE);
+        button.setBackground(new Color(50, 50, 50));
+        button.setFocusPainted(false);
+        button.setPreferredSize(new Dimension(140, 40));
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == startButton) {
+            startSort();
+        } else if (e.getSource() == stopButton) {
+            controller.cancel();
+        } else if (e.getSource() == pauseButton) {
+            if (controller.isPaused()) {
+                controller.resume();
+            } else {
+                controller.pause();
+            }
+            pauseButton.setText(controller.isPaused() ? "Resume" : "Pause");
+        } else if (e.getSource() == mainMenu) {
+            frameTimer.stop();
+            controller.cancel();
+            Window window = SwingUtilities.getWindowAncestor(this);
+            window.dispose();
+            new SplashScreen();
+        }
+    }
+
+    private void startSort() {
+        if (worker != null) return;
+        controller = new RunController();
+        pauseButton.setText("Pause");
+        runs.clear();
+        passFill = new long[1];
+        merging = new int[0];
+        total = SIZE_CHOICES[sizeBox.getSelectedIndex()];
+        intsRead = 0;
+        intsWritten = 0;
+        ExternalSort sort = new ExternalSort(this)
+                .setAlgorithm(Algorithm.values()[algorithmBox.getSelectedIndex()])
+                .setMemory((long) MEMORY_CHOICES[memoryBox.getSelectedIndex()] << 20)
+                .setFanIn(FAN_IN_CHOICES[fanInBox.getSelectedIndex()]);
+        chunkLength = sort.getChunkLength();
+        settings = String.format("%s on %,d ints (%,.1f MiB) in %,d MiB: chunks of %,d ints, fan-in %d, %,d KiB mapped windows",
+                sort.getAlgorithm().getDisplayName(), total, total * 4.0 / (1 << 20), sort.getMemory() >> 20,
+                sort.getChunkLength(), sort.getFanIn(), sort.getWindowSize() >> 10);
+        status = "Writing the input file";
+        worker = new SortWorker(sort, total, ThreadLocalRandom.current().nextLong());
+        worker.execute();
+    }
+
+    // Generates the input, sorts it and verifies the output, all in one temporary directory
+    private final class SortWorker extends SwingWorker<Boolean, Void> {
+        private final ExternalSort sort;
+        private final long count;
+        private final long seed;
+        private final RunController runController = controller;
+
+        SortWorker(ExternalSort sort, long count, long seed) {
+            this.sort = sort;
+            this.count = count;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Boolean doInBackground() throws IOException {
+            Path directory = Files.createTempDirectory("external-sort");
+            Path input = directory.resolve("input.bin");
+            Path output = directory.resolve("output.bin");
+            try {
+                ExternalSort.generate(input, count, seed, ByteOrder.BIG_ENDIAN);
+                sort.setTempDirectory(directory).sort(input, output);
+                status = "Verifying the output";
+                return ExternalSort.isSorted(output, ByteOrder.BIG_ENDIAN);
+            } finally {
+                Files.deleteIfExists(input);
+                Files.deleteIfExists(output);
+                Files.deleteIfExists(directory);
+            }
+        }
+
+        @Override
+        protected void done() {
+            worker = null;
+            try {
+                boolean sorted = get();
+                status = String.format("%,d runs sorted in %.2f s, merged in %d pass%s in %.2f s%s",
+                        sort.getChunks(), sort.getChunkNanos() / 1e9, sort.getPasses(), sort.getPasses() == 1 ? "" : "es",
+                        sort.getMergeNanos() / 1e9, sorted ? ", output verified in order" : ", OUTPUT NOT IN ORDER");
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof CancellationException) {
+                    status = "Stopped";
+                } else {
+                    status = "Failed";
+                    JOptionPane.showMessageDialog(ExternalSortVisualizer.this,
+                            "External sort failed: " + ex.getCause().getMessage(), "External Sort", JOptionPane.ERROR_MESSAGE);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            board.repaint();
+        }
+    }
+
+    // The ExternalSort reports every run here on the sorting thread; each report is also a point
+    // where Pause and Stop take effect
+    @Override
+    public void onRunStarted(int run, int pass, long length) {
+        controller.checkpoint();
+        if (pass >= passFill.length) {
+            passFill = Arrays.copyOf(passFill, pass + 1);
+        }
+        runs.add(new RunView(pass, passFill[pass], length));
+        passFill[pass] += length;
+        if (pass == 0) {
+            intsRead += length;
+            status = String.format("Sorting chunk %,d of %,d in memory", run + 1, (total + chunkLength - 1) / chunkLength);
+        }
+    }
+
+    @Override
+    public void onRunWritten(int run, long written) {
+        controller.checkpoint();
+        RunView view = runs.get(run);
+        intsWritten += written - view.written;
+        view.written = written;
+    }
+
+    @Override
+    public void onMerge(int[] sources, int target) {
+        controller.checkpoint();
+        for (int run : merging) {
+            runs.get(run).active = false;
+        }
+        merging = Arrays.copyOf(sources, sources.length + 1);
+        merging[sources.length] = target;
+        for (int run : merging) {
+            runs.get(run).active = true;
+        }
+        status = String.format("Pass %d: merging runs %d to %d into run %d", runs.get(target).pass,
+                sources.length == 0 ? target : sources[0], sources.length == 0 ? target : sources[sources.length - 1], target);
+    }
+
+    @Override
+    public void onRunRead(int run, long consumed) {
+        controller.checkpoint();
+        RunView view = runs.get(run);
+        intsRead += consumed - view.consumed;
+        view.consumed = consumed;
+    }
+
+    private void paintRuns(Graphics g) {
+        g.setColor(Color.WHITE);
+        g.drawString(settings, MARGIN, 20);
+        g.drawString(status, MARGIN, 40);
+        g.drawString(String.format("Read %,.1f MiB, written %,.1f MiB", intsRead * 4.0 / (1 << 20),
+                intsWritten * 4.0 / (1 << 20)), MARGIN, 60);
+        if (runs.isEmpty() || total == 0) return;
+
+        int rows = 0;
+        int output = -1; // Only the final merge writes a run of the whole input
+        for (RunView view : runs) {
+            rows = Math.max(rows, view.pass + 1);
+            if (view.pass > 0 && view.length == total) {
+                output = view.pass;
+            }
+        }
+        int available = board.getHeight() - HEADER_HEIGHT;
+        int rowHeight = Math.min(ROW_HEIGHT, Math.max(4, available / rows - ROW_GAP));
+        int width = board.getWidth() - LABEL_WIDTH - 2 * MARGIN;
+        for (int row = 0; row < rows; row++) {
+            int y = HEADER_HEIGHT + row * (rowHeight + ROW_GAP);
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawString(row == 0 ? "Chunks" : row == output ? "Output" : "Pass " + row, MARGIN, y + Math.min(rowHeight, 20) - 4);
+        }
+        for (RunView view : runs) {
+            int y = HEADER_HEIGHT + view.pass * (rowHeight + ROW_GAP);
+            int x = MARGIN + LABEL_WIDTH + (int) (view.offset * width / total);
+            int w = Math.max(1, (int) ((view.offset + view.length) * width / total) + MARGIN + LABEL_WIDTH - x);
+            long written = view.written;
+            long consumed = view.consumed;
+            if (view.pass == 0 && written == 0) {
+                g.setColor(SORTING);
+                g.fillRect(x, y, w, rowHeight);
+            } else if (view.length > 0) {
+                g.setColor(WRITTEN);
+                g.fillRect(x, y, (int) (written * w / view.length), rowHeight);
+                g.setColor(READ);
+                g.fillRect(x, y, (int) (consumed * w / view.length), rowHeight);
+            }
+            g.setColor(view.active ? ACTIVE : Color.GRAY);
+            g.drawRect(x, y, w - 1, rowHeight - 1);
+        }
+    }
+}
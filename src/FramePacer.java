@@ -0,0 +1,91 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Paces sort threads against a fixed-rate render clock. Each frame the clock grants a budget of
+// operations worth opsPerSecond / fps; sort threads spend it with a single atomic decrement and
+// only block once the budget runs out, so one frame shows a whole batch of operations. Below fps
+// operations per second the fractional credit carries over and every operation still gets its
+// own frame. Several threads may share one pacer, as the parallel sorts do. Waiting threads
+// block on a Condition rather than a monitor, so virtual threads unmount while they wait.
+class FramePacer {
+
+    private final int fps;
+    private volatile long opsPerSecond;
+    private final AtomicLong budget = new AtomicLong();
+    private volatile long frame;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition nextFrame = lock.newCondition();
+
+    // Guarded by lock: credit carried between frames
+    private double credit;
+
+    FramePacer(int fps, long opsPerSecond) {
+        this.fps = fps;
+        this.opsPerSecond = opsPerSecond;
+    }
+
+    int getFps() {
+        return fps;
+    }
+
+    long getOpsPerSecond() {
+        return opsPerSecond;
+    }
+
+    void setOpsPerSecond(long opsPerSecond) {
+        this.opsPerSecond = Math.max(1, opsPerSecond);
+    }
+
+    // Called by the render clock once per frame. Budget left over from the previous frame is
+    // dropped so a slow sort thread never bursts through several frames' worth at once.
+    void tick() {
+        lock.lock();
+        try {
+            credit += (double) opsPerSecond / fps;
+            long whole = (long) credit;
+            credit -= whole;
+            budget.set(whole);
+            frame++;
+            nextFrame.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called by a sort thread before it performs the next operation
+    void acquire() throws InterruptedException {
+        while (true) {
+            long current = frame;
+            if (budget.getAndDecrement() > 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                while (frame == current) {
+                    nextFrame.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Lets every waiting and later acquire through until the next reset, so a cancelled run can
+    // reach its RunController checkpoint without waiting for frames that may never come
+    void release() {
+        lock.lock();
+        try {
+            budget.set(Long.MAX_VALUE);
+            frame++;
+            nextFrame.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Forget any budget still granted, e.g. before starting a new run
+    void reset() {
+        budget.set(0);
+    }
+}
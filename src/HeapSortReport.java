@@ -0,0 +1,38 @@
+// Headless comparison of the heap sort variants on the same random input: comparisons per
+// element, counted in a separate run, and the best time per element of Reports.RUNS uncounted runs.
+// Usage: java -cp src HeapSortReport [size ...]
+public class HeapSortReport {
+
+    private static final Algorithm[] VARIANTS = {
+            Algorithm.HEAP, Algorithm.BOTTOM_UP_HEAP, Algorithm.QUATERNARY_HEAP, Algorithm.OCTONARY_HEAP,
+    };
+
+    private static final Reports.Table TABLE = new Reports.Table()
+            .column("algorithm", "%-22s").column("size", "%,12d").column("comparisons", "%,16d")
+            .column("per element", "%12.2f").column("ms", "%10.1f").column("ns/element", "%10.1f");
+
+    public static void main(String[] args) {
+        int[] sizes = Reports.sizes(args, 100_000, 1_000_000, 10_000_000);
+
+        TABLE.printHeader();
+        for (int size : sizes) {
+            int[] input = new InputGenerator(42).generate(InputDistribution.RANDOM, size);
+            for (Algorithm algorithm : VARIANTS) {
+                long[] comparisons = new long[1];
+                int[] counted = input.clone();
+                new SortEngine(counted, new SortListener() {
+                    @Override
+                    public void onCompare(int i, int j) {
+                        comparisons[0]++;
+                    }
+                }).sort(algorithm);
+                if (!IntArrays.isSorted(counted)) {
+                    throw new IllegalStateException(algorithm.getDisplayName() + " left the array unsorted");
+                }
+                long best = Reports.bestNanos(algorithm.getDisplayName(), input, work -> new SortEngine(work).sort(algorithm));
+                TABLE.printRow(algorithm.getDisplayName(), size, comparisons[0], (double) comparisons[0] / size,
+                        best / 1e6, (double) best / size);
+            }
+        }
+    }
+}
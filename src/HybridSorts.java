@@ -0,0 +1,470 @@
+// The hybrid sorts production libraries are built from, written against SortEngine so every step
+// is visible. Introsort is quick sort that cannot go quadratic: it switches a range to heap sort
+// once partitioning has gone 2 log2 n levels deep, and leaves small ranges to insertion sort.
+// TimSort finds the runs already present in the input, extends short ones with binary insertion
+// sort and merges them under a stack discipline that keeps merges balanced, galloping through
+// stretches where one run keeps winning.
+final class HybridSorts {
+
+    // Ranges at or below this size are finished with insertion sort
+    static final int INSERTION_CUTOFF = 16;
+    // TimSort's shortest run; arrays below this size are one binary insertion sort
+    static final int MIN_MERGE = 32;
+    // Wins in a row after which a merge switches to galloping
+    static final int MIN_GALLOP = 7;
+
+    private HybridSorts() {
+    }
+
+    static void introSort(SortEngine engine) {
+        int n = engine.length();
+        if (n < 2) return;
+        introSort(engine, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+    }
+
+    // Recurses into the smaller partition and loops on the larger one, so the stack stays
+    // O(log n) deep even before the depth limit kicks in
+    private static void introSort(SortEngine engine, int low, int high, int depthLimit) {
+        while (high - low + 1 > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                engine.range(low, high);
+                engine.heapSort(low, high);
+                return;
+            }
+            engine.medianOfThree(low, high);
+            int pi = engine.partition(low, high);
+            if (pi - low < high - pi) {
+                introSort(engine, low, pi - 1, depthLimit);
+                low = pi + 1;
+            } else {
+                introSort(engine, pi + 1, high, depthLimit);
+                high = pi - 1;
+            }
+        }
+        if (low < high) {
+            engine.insertionSort(low, high);
+        }
+    }
+
+    static void timSort(SortEngine engine) {
+        new TimSort(engine).sort();
+    }
+
+    // One TimSort run over an engine's array, after java.util.TimSort specialised to ints. The
+    // merge buffer is the engine's scratch array, so repeated merges never allocate.
+    private static final class TimSort {
+
+        private final SortEngine engine;
+        private final int[] a;
+        private int minGallop = MIN_GALLOP;
+
+        // Pending runs, oldest at the bottom; 49 entries cover any int-sized array
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize;
+
+        TimSort(SortEngine engine) {
+            this.engine = engine;
+            this.a = engine.getArray();
+            engine.allocated(runBase.length + runLen.length);
+        }
+
+        void sort() {
+            int lo = 0;
+            int hi = a.length;
+            int remaining = hi;
+            if (remaining < 2) return;
+            if (remaining < MIN_MERGE) {
+                binarySort(lo, hi, lo + countRunAndMakeAscending(lo, hi));
+                return;
+            }
+            int minRun = minRunLength(remaining);
+            do {
+                int runLength = countRunAndMakeAscending(lo, hi);
+                if (runLength < minRun) {
+                    int force = Math.min(remaining, minRun);
+                    binarySort(lo, lo + force, lo + runLength);
+                    runLength = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = runLength;
+                stackSize++;
+                mergeCollapse();
+                lo += runLength;
+                remaining -= runLength;
+            } while (remaining != 0);
+            mergeForceCollapse();
+        }
+
+        // n itself below MIN_MERGE, otherwise a length in [MIN_MERGE / 2, MIN_MERGE] that
+        // divides n into a power of two runs, or slightly fewer
+        private static int minRunLength(int n) {
+            int r = 0;
+            while (n >= MIN_MERGE) {
+                r |= n & 1;
+                n >>= 1;
+            }
+            return n + r;
+        }
+
+        // Length of the run starting at lo; a strictly descending run is reversed in place
+        private int countRunAndMakeAscending(int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) return 1;
+            engine.compared(runHi, lo);
+            if (a[runHi++] < a[lo]) {
+                while (runHi < hi) {
+                    engine.compared(runHi, runHi - 1);
+                    if (a[runHi] >= a[runHi - 1]) break;
+                    runHi++;
+                }
+                engine.range(lo, runHi - 1);
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    engine.swap(i, j);
+                }
+            } else {
+                while (runHi < hi) {
+                    engine.compared(runHi, runHi - 1);
+                    if (a[runHi] < a[runHi - 1]) break;
+                    runHi++;
+                }
+                engine.range(lo, runHi - 1);
+            }
+            return runHi - lo;
+        }
+
+        // Sorts [lo, hi) whose prefix [lo, start) is already sorted, binary searching each insertion point
+        private void binarySort(int lo, int hi, int start) {
+            engine.range(lo, hi - 1);
+            for (; start < hi; start++) {
+                int pivot = a[start];
+                int left = lo;
+                int right = start;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    engine.compared(start, mid);
+                    if (pivot < a[mid]) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                for (int k = start; k > left; k--) {
+                    engine.write(k, a[k - 1]);
+                }
+                engine.write(left, pivot);
+            }
+        }
+
+        // Merges until the run lengths on the stack satisfy
+        // runLen[i - 2] > runLen[i - 1] + runLen[i] and runLen[i - 1] > runLen[i]
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        // Merges runs i and i + 1 of the stack
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+            engine.range(base1, base2 + len2 - 1);
+
+            // Elements of run 1 already below run 2's first, and of run 2 already above run 1's
+            // last, are in place
+            int k = gallopRight(a[base2], base2, a, base1, len1, 0, base1);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallopLeft(a[base1 + len1 - 1], base1 + len1 - 1, a, base2, len2, len2 - 1, base2);
+            if (len2 == 0) return;
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        // Offset in arr[base, base + len) of the leftmost element >= key, searched outward from
+        // hint. keyAt and shown + offset are the array indices reported for each comparison.
+        private int gallopLeft(int key, int keyAt, int[] arr, int base, int len, int hint, int shown) {
+            int lastOfs = 0;
+            int ofs = 1;
+            engine.compared(keyAt, shown + hint);
+            if (key > arr[base + hint]) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && greater(key, keyAt, arr, base, hint + ofs, shown)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && !greater(key, keyAt, arr, base, hint - ofs, shown)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                int tmp = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - tmp;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (greater(key, keyAt, arr, base, m, shown)) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        // Like gallopLeft, but the offset just past the rightmost element <= key
+        private int gallopRight(int key, int keyAt, int[] arr, int base, int len, int hint, int shown) {
+            int lastOfs = 0;
+            int ofs = 1;
+            engine.compared(keyAt, shown + hint);
+            if (key < arr[base + hint]) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && less(key, keyAt, arr, base, hint - ofs, shown)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                int tmp = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - tmp;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && !less(key, keyAt, arr, base, hint + ofs, shown)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (less(key, keyAt, arr, base, m, shown)) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        private boolean greater(int key, int keyAt, int[] arr, int base, int offset, int shown) {
+            engine.compared(keyAt, shown + offset);
+            return key > arr[base + offset];
+        }
+
+        private boolean less(int key, int keyAt, int[] arr, int base, int offset, int shown) {
+            engine.compared(keyAt, shown + offset);
+            return key < arr[base + offset];
+        }
+
+        // Merges neighbouring runs with len1 <= len2 left to right, buffering the first run
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] tmp = engine.scratch(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            engine.write(dest++, a[cursor2++]);
+            if (--len2 == 0) {
+                copyFrom(tmp, cursor1, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                move(cursor2, dest, len2);
+                engine.write(dest + len2, tmp[cursor1]);
+                return;
+            }
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0; // Wins in a row of run 1
+                int count2 = 0; // Wins in a row of run 2
+                do {
+                    engine.compared(cursor2, dest);
+                    if (a[cursor2] < tmp[cursor1]) {
+                        engine.write(dest++, a[cursor2++]);
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) break outer;
+                    } else {
+                        engine.write(dest++, tmp[cursor1++]);
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // One run keeps winning: gallop until neither run wins MIN_GALLOP in a row
+                do {
+                    count1 = gallopRight(a[cursor2], cursor2, tmp, cursor1, len1, 0, dest);
+                    if (count1 != 0) {
+                        copyFrom(tmp, cursor1, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) break outer;
+                    }
+                    engine.write(dest++, a[cursor2++]);
+                    if (--len2 == 0) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], dest, a, cursor2, len2, 0, cursor2);
+                    if (count2 != 0) {
+                        move(cursor2, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) break outer;
+                    }
+                    engine.write(dest++, tmp[cursor1++]);
+                    if (--len1 == 1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2; // Penalize leaving gallop mode
+            }
+            this.minGallop = Math.max(1, minGallop);
+            if (len1 == 1) {
+                move(cursor2, dest, len2);
+                engine.write(dest + len2, tmp[cursor1]);
+            } else {
+                copyFrom(tmp, cursor1, dest, len1);
+            }
+        }
+
+        // Merges neighbouring runs with len1 > len2 right to left, buffering the second run
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] tmp = engine.scratch(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            engine.write(dest--, a[cursor1--]);
+            if (--len1 == 0) {
+                copyFrom(tmp, 0, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                move(cursor1 + 1, dest + 1, len1);
+                engine.write(dest, tmp[cursor2]);
+                return;
+            }
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0; // Wins in a row of run 1
+                int count2 = 0; // Wins in a row of run 2
+                do {
+                    engine.compared(cursor1, dest);
+                    if (tmp[cursor2] < a[cursor1]) {
+                        engine.write(dest--, a[cursor1--]);
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) break outer;
+                    } else {
+                        engine.write(dest--, tmp[cursor2--]);
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], dest, a, base1, len1, len1 - 1, base1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        move(cursor1 + 1, dest + 1, count1);
+                        if (len1 == 0) break outer;
+                    }
+                    engine.write(dest--, tmp[cursor2--]);
+                    if (--len2 == 1) break outer;
+
+                    count2 = len2 - gallopLeft(a[cursor1], cursor1, tmp, 0, len2, len2 - 1, dest - cursor2);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        copyFrom(tmp, cursor2 + 1, dest + 1, count2);
+                        if (len2 <= 1) break outer;
+                    }
+                    engine.write(dest--, a[cursor1--]);
+                    if (--len1 == 0) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2; // Penalize leaving gallop mode
+            }
+            this.minGallop = Math.max(1, minGallop);
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                move(cursor1 + 1, dest + 1, len1);
+                engine.write(dest, tmp[cursor2]);
+            } else {
+                copyFrom(tmp, 0, dest - (len2 - 1), len2);
+            }
+        }
+
+        private void copyFrom(int[] tmp, int from, int dest, int length) {
+            for (int k = 0; k < length; k++) {
+                engine.write(dest + k, tmp[from + k]);
+            }
+        }
+
+        // Moves a[from, from + length) to dest within the array, in the order that is safe for overlaps
+        private void move(int from, int dest, int length) {
+            if (dest < from) {
+                for (int k = 0; k < length; k++) {
+                    engine.write(dest + k, a[from + k]);
+                }
+            } else {
+                for (int k = length - 1; k >= 0; k--) {
+                    engine.write(dest + k, a[from + k]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// Shapes of input the InputGenerator can produce, with the label shown in the visualizers
+public enum InputDistribution {
+    RANDOM("Random"),
+    SORTED("Sorted"),
+    REVERSED("Reversed"),
+    NEARLY_SORTED("Nearly Sorted"),       // Sorted, then k random pairs swapped
+    FEW_UNIQUE("Few Unique"),             // Only a handful of distinct values
+    SAWTOOTH("Sawtooth"),                 // Several ascending runs, each starting over from the bottom
+    ORGAN_PIPE("Organ Pipe"),             // Ascending to the middle, then descending
+    GAUSSIAN("Gaussian"),                 // Normally distributed around the middle of the range
+    QUICKSORT_KILLER("Quicksort Killer"); // Drives median-of-three quick sort to n^2 / 4 comparisons
+
+    private final String displayName;
+
+    InputDistribution(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
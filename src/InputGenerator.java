@@ -0,0 +1,246 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+// Reproducible inputs for the visualizers, benchmarks and reports. The same seed, size and
+// settings always give the same array. Large arrays are filled in parallel: the array is cut
+// into fixed-size chunks, and each chunk draws from its own SplittableRandom split off the seed
+// in chunk order, so the result does not depend on how many threads did the work.
+// Values fall in [0, maxValue).
+public class InputGenerator {
+
+    static final int CHUNK = 1 << 16;
+    static final int FEW_UNIQUE_VALUES = 16;
+    static final int SAWTOOTH_TEETH = 8;
+
+    private final long seed;
+    private int maxValue = Integer.MAX_VALUE;
+    private int swaps = -1; // Pairs swapped in nearly sorted input, -1 for one percent of the size
+
+    public InputGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public InputGenerator setMaxValue(int maxValue) {
+        if (maxValue < 1) {
+            throw new IllegalArgumentException("Values need a range of at least 1: " + maxValue);
+        }
+        this.maxValue = maxValue;
+        return this;
+    }
+
+    public InputGenerator setSwaps(int swaps) {
+        this.swaps = swaps;
+        return this;
+    }
+
+    public int[] generate(InputDistribution distribution, int size) {
+        int[] array = new int[size];
+        fill(distribution, array);
+        return array;
+    }
+
+    // Overwrites array with the distribution
+    public void fill(InputDistribution distribution, int[] array) {
+        int n = array.length;
+        SplittableRandom root = new SplittableRandom(seed);
+        switch (distribution) {
+            case QUICKSORT_KILLER:
+                int[] killer = medianOfThreeKiller(n);
+                fillChunks(array, root, (random, i) -> scale(killer[i], n));
+                return;
+            case NEARLY_SORTED:
+                SplittableRandom swapper = root.split();
+                fillChunks(array, root, (random, i) -> scale(i, n));
+                int k = swaps < 0 ? n / 100 : swaps;
+                for (int s = 0; s < k && n > 1; s++) {
+                    int a = swapper.nextInt(n);
+                    int b = swapper.nextInt(n);
+                    int temp = array[a];
+                    array[a] = array[b];
+                    array[b] = temp;
+                }
+                return;
+            default:
+                fillChunks(array, root, valueFunction(distribution, n));
+        }
+    }
+
+    // Value at index i of an array of n elements, drawing from the chunk's random if it needs to
+    private interface ValueFunction {
+        int valueAt(SplittableRandom random, int i);
+    }
+
+    private ValueFunction valueFunction(InputDistribution distribution, int n) {
+        switch (distribution) {
+            case SORTED:
+                return (random, i) -> scale(i, n);
+            case REVERSED:
+                return (random, i) -> scale(n - 1 - i, n);
+            case FEW_UNIQUE:
+                return (random, i) -> scale(random.nextInt(FEW_UNIQUE_VALUES), FEW_UNIQUE_VALUES);
+            case SAWTOOTH: {
+                int tooth = Math.max(1, (n + SAWTOOTH_TEETH - 1) / SAWTOOTH_TEETH);
+                return (random, i) -> scale(i % tooth, tooth);
+            }
+            case ORGAN_PIPE: {
+                int half = Math.max(1, (n + 1) / 2);
+                return (random, i) -> scale(Math.min(i, n - 1 - i), half);
+            }
+            case GAUSSIAN:
+                // Mean in the middle of the range and three standard deviations to either end
+                return (random, i) -> {
+                    double value = maxValue / 2.0 + random.nextGaussian() * maxValue / 6.0;
+                    return (int) Math.max(0, Math.min(maxValue - 1, value));
+                };
+            default:
+                return (random, i) -> random.nextInt(maxValue);
+        }
+    }
+
+    private void fillChunks(int[] array, SplittableRandom root, ValueFunction values) {
+        int chunks = (array.length + CHUNK - 1) / CHUNK;
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom random = randoms[c];
+            int end = Math.min(array.length, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) {
+                array[i] = values.valueAt(random, i);
+            }
+        });
+    }
+
+    // Maps x in [0, range) onto [0, maxValue), keeping the order
+    private int scale(long x, long range) {
+        return (int) (x * maxValue / range);
+    }
+
+    // A permutation of 0..n-1 on which quick sort with a median of three followed by a Lomuto
+    // partition (the loop of HybridSorts.introSort, without its depth limit) makes about n^2 / 4
+    // comparisons. It replays that sort against McIlroy's adversary: every element starts as
+    // "gas", worth more than anything, and a comparison of two gas elements freezes the first of
+    // them to the next smallest value. The median of three is then always one of the two
+    // smallest keys of its range. Once the partition pivot is frozen, the scan only moves frozen
+    // keys, so the replay visits those alone and runs in O(n log n) rather than the n^2 / 4 of
+    // the sort it simulates.
+    static int[] medianOfThreeKiller(int n) {
+        return new Killer(n).run();
+    }
+
+    private static final class Killer {
+        private static final int GAS = Integer.MAX_VALUE;
+
+        private final int[] values;
+        private final int[] ids; // Which original element sits at each position
+        private final TreeSet<Integer> frozen = new TreeSet<>(); // Positions of frozen keys not yet in place
+        private int nextFrozen;
+
+        Killer(int n) {
+            values = new int[n];
+            ids = new int[n];
+            Arrays.fill(values, GAS);
+            for (int i = 0; i < n; i++) {
+                ids[i] = i;
+            }
+        }
+
+        int[] run() {
+            int n = values.length;
+            sort(0, n - 1);
+            int[] result = new int[n];
+            for (int k = 0; k < n; k++) {
+                // Elements never compared against another gas element are ordered by position
+                result[ids[k]] = values[k] == GAS ? nextFrozen++ : values[k];
+            }
+            return result;
+        }
+
+        // Mirrors the partition loop of HybridSorts.introSort, never giving up on depth
+        private void sort(int low, int high) {
+            while (low < high) {
+                medianOfThree(low, high);
+                int pi = partition(low, high);
+                frozen.remove(pi);
+                if (pi - low < high - pi) {
+                    sort(low, pi - 1);
+                    low = pi + 1;
+                } else {
+                    sort(pi + 1, high);
+                    high = pi - 1;
+                }
+            }
+            if (low == high) {
+                frozen.remove(low);
+            }
+        }
+
+        // Mirrors SortEngine.medianOfThree
+        private void medianOfThree(int low, int high) {
+            int mid = (low + high) >>> 1;
+            compare(mid, low);
+            if (values[mid] < values[low]) swap(mid, low);
+            compare(high, low);
+            if (values[high] < values[low]) swap(high, low);
+            compare(mid, high);
+            if (values[mid] < values[high]) swap(mid, high);
+        }
+
+        // Mirrors SortEngine.partition
+        private int partition(int low, int high) {
+            int pivot = values[high];
+            int i = low - 1;
+            if (pivot == GAS) {
+                for (int j = low; j < high; j++) {
+                    compare(j, high);
+                    if (values[j] < pivot) {
+                        swap(++i, j);
+                    }
+                }
+            } else {
+                // Gas never sorts below a frozen pivot, so only frozen keys can move
+                for (int j : frozen.subSet(low, high).toArray(new Integer[0])) {
+                    if (values[j] < pivot) {
+                        swap(++i, j);
+                    }
+                }
+            }
+            swap(i + 1, high);
+            return i + 1;
+        }
+
+        private void compare(int i, int j) {
+            if (values[i] == GAS && values[j] == GAS) {
+                values[i] = nextFrozen++;
+                frozen.add(i);
+            }
+        }
+
+        private void swap(int i, int j) {
+            if (i == j) return;
+            int temp = values[i];
+            values[i] = values[j];
+            values[j] = temp;
+            temp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = temp;
+            boolean frozenI = frozen.contains(i);
+            if (frozenI != frozen.contains(j)) {
+                if (frozenI) {
+                    frozen.remove(i);
+                    frozen.add(j);
+                } else {
+                    frozen.remove(j);
+                    frozen.add(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+// Checks on int arrays shared by the headless tools and reports
+final class IntArrays {
+
+    private IntArrays() {
+    }
+
+    static boolean isSorted(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            if (array[i - 1] > array[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
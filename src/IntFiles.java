@@ -0,0 +1,171 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Integer data files for the headless tools, read and written through NIO. Binary files hold raw
+// 32-bit ints, big-endian like the traces unless little-endian is asked for; text files hold
+// decimal ints separated by whitespace or commas. Input is mapped a window at a time, so files
+// of any size can be read without the whole file ever being mapped or copied onto the heap.
+final class IntFiles {
+
+    enum Format {
+        BINARY, TEXT;
+
+        // TEXT for .txt, .csv and .tsv files, BINARY for everything else
+        static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".txt") || name.endsWith(".csv") || name.endsWith(".tsv") ? TEXT : BINARY;
+        }
+    }
+
+    static final int MAX_LENGTH = Integer.MAX_VALUE - 8; // Largest int[] the JVMs allow
+    private static final long WINDOW = 1L << 26; // Bytes mapped at a time, a multiple of 4
+    private static final int BUFFER_SIZE = 1 << 20; // Bytes written at a time
+
+    private IntFiles() {
+    }
+
+    // The first limit ints of path, or all of them when limit is negative
+    static int[] read(Path path, Format format, ByteOrder order, int limit) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return format == Format.BINARY ? readBinary(path, channel, order, limit) : readText(path, channel, limit);
+        }
+    }
+
+    private static int[] readBinary(Path path, FileChannel channel, ByteOrder order, int limit) throws IOException {
+        long size = channel.size();
+        if (size % Integer.BYTES != 0) {
+            throw new IOException(path + " is " + size + " bytes, not a whole number of ints");
+        }
+        long count = size / Integer.BYTES;
+        if (limit >= 0) {
+            count = Math.min(count, limit);
+        }
+        if (count > MAX_LENGTH) {
+            throw new IOException(path + " holds " + count + " ints, more than one array can hold; sort it with ExternalSort");
+        }
+        int[] array = new int[(int) count];
+        read(channel, 0, array, 0, array.length, order);
+        return array;
+    }
+
+    // Reads length ints starting at int index first of a binary file into array[offset, offset + length)
+    static void read(FileChannel channel, long first, int[] array, int offset, int length, ByteOrder order)
+            throws IOException {
+        long position = first * Integer.BYTES;
+        long end = position + (long) length * Integer.BYTES;
+        while (position < end) {
+            long bytes = Math.min(WINDOW, end - position);
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes).order(order).asIntBuffer();
+            int k = ints.remaining();
+            ints.get(array, offset, k);
+            offset += k;
+            position += bytes;
+        }
+    }
+
+    // A state machine over the mapped bytes, so a number may straddle two windows
+    private static int[] readText(Path path, FileChannel channel, int limit) throws IOException {
+        int[] array = new int[limit >= 0 ? Math.min(limit, 1 << 16) : 1 << 16];
+        int count = 0;
+        long value = 0;
+        boolean negative = false;
+        int digits = -1; // -1 between numbers, 0 after a sign
+        long size = channel.size();
+        for (long position = 0; position < size && count != limit; position += WINDOW) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position));
+            while (window.hasRemaining() && count != limit) {
+                int c = window.get();
+                if (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    digits = Math.max(digits, 0) + 1;
+                    if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                        throw new IOException(path + ": number out of int range at byte " + (position + window.position()));
+                    }
+                } else if (c == '-' && digits < 0) {
+                    negative = true;
+                    digits = 0;
+                } else if (c == ' ' || c == ',' || c == '\n' || c == '\r' || c == '\t') {
+                    if (digits == 0) {
+                        throw new IOException(path + ": sign without digits at byte " + (position + window.position()));
+                    }
+                    if (digits > 0) {
+                        if (count == array.length) {
+                            array = grow(array);
+                        }
+                        array[count++] = (int) (negative ? -value : value);
+                    }
+                    value = 0;
+                    negative = false;
+                    digits = -1;
+                } else {
+                    throw new IOException(path + ": unexpected character '" + (char) c + "' at byte "
+                            + (position + window.position() - 1));
+                }
+            }
+        }
+        if (digits == 0) {
+            throw new IOException(path + ": sign without digits at the end");
+        }
+        if (digits > 0 && count != limit) {
+            if (count == array.length) {
+                array = grow(array);
+            }
+            array[count++] = (int) (negative ? -value : value);
+        }
+        return count == array.length ? array : Arrays.copyOf(array, count);
+    }
+
+    private static int[] grow(int[] array) throws IOException {
+        if (array.length == MAX_LENGTH) {
+            throw new IOException("More ints than one array can hold");
+        }
+        return Arrays.copyOf(array, (int) Math.min(MAX_LENGTH, 2L * array.length));
+    }
+
+    static void write(Path path, int[] array, Format format, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(order);
+            if (format == Format.BINARY) {
+                write(channel, buffer, array, 0, array.length);
+                return;
+            }
+            for (int value : array) {
+                if (buffer.remaining() < 12) { // Room for "-2147483648\n"
+                    drain(channel, buffer);
+                }
+                buffer.put(Integer.toString(value).getBytes(StandardCharsets.US_ASCII)).put((byte) '\n');
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    // Writes array[offset, offset + length) as binary ints through buffer, in buffer's byte order
+    static void write(FileChannel channel, ByteBuffer buffer, int[] array, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            int k = Math.min(end - offset, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(array, offset, k);
+            buffer.position(buffer.position() + k * Integer.BYTES);
+            offset += k;
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,194 @@
+// Swing-free home of the linked list sorts. The algorithms work on the list starting at head and
+// report each comparison, value swap and pointer change to a ListSortListener, like SortEngine
+// does for arrays.
+// Every node's position field holds its index in the list, so listeners can locate a node in
+// O(1). Value swaps leave positions alone; anything that relinks nodes calls renumber().
+public class LinkedListSortEngine {
+
+    private ListNode head;
+    private final ListSortListener listener;
+
+    public LinkedListSortEngine(ListNode head) {
+        this(head, ListSortListener.NONE);
+    }
+
+    public LinkedListSortEngine(ListNode head, ListSortListener listener) {
+        this.head = head;
+        this.listener = listener;
+        renumber(head, 0);
+    }
+
+    // Builds a list holding values in order, appending through a tail pointer
+    public static LinkedListSortEngine fromValues(int[] values) {
+        ListNode head = null;
+        ListNode tail = null;
+        for (int value : values) {
+            ListNode node = new ListNode(value, null);
+            if (head == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+        return new LinkedListSortEngine(head);
+    }
+
+    public ListNode getHead() {
+        return head;
+    }
+
+    // Overwrites the node values in list order without allocating, so a list can be re-sorted
+    public void reset(int[] values) {
+        ListNode temp = head;
+        for (int i = 0; temp != null && i < values.length; i++) {
+            temp.value = values[i];
+            temp = temp.next;
+        }
+    }
+
+    // Restores the position of from and every node after it, from holding index position.
+    // Returns the position following the last node.
+    static int renumber(ListNode from, int position) {
+        for (ListNode temp = from; temp != null; temp = temp.next) {
+            temp.position = position++;
+        }
+        return position;
+    }
+
+    public void sort(ListAlgorithm algorithm) {
+        algorithm.sort(this);
+    }
+
+    private void swapValues(ListNode a, ListNode b) {
+        int tempValue = a.value;
+        a.value = b.value;
+        b.value = tempValue;
+        listener.onSwap(a, b);
+    }
+
+    // Sorting Algorithms
+    public void bubbleSort() {
+        boolean swapped;
+        do {
+            swapped = false;
+            ListNode current = head;
+            while (current != null && current.next != null) {
+                listener.onCompare(current, current.next);
+                if (current.value > current.next.value) {
+                    swapValues(current, current.next);
+                    swapped = true;
+                }
+                current = current.next;
+            }
+        } while (swapped);
+    }
+
+    public void selectionSort() {
+        ListNode current = head;
+        while (current != null) {
+            ListNode minNode = current;
+            ListNode tempNode = current.next;
+            while (tempNode != null) {
+                listener.onCompare(tempNode, minNode);
+                if (tempNode.value < minNode.value) {
+                    minNode = tempNode;
+                }
+                tempNode = tempNode.next;
+            }
+            if (minNode != current) {
+                swapValues(current, minNode);
+            }
+            current = current.next;
+        }
+    }
+
+    public void insertionSort() {
+        ListNode current = head;
+        while (current != null) {
+            ListNode nextNode = current.next;
+            while (nextNode != null) {
+                listener.onCompare(current, nextNode);
+                if (current.value > nextNode.value) {
+                    swapValues(current, nextNode);
+                }
+                nextNode = nextNode.next;
+            }
+            current = current.next;
+        }
+    }
+
+    // Bottom-up merge sort that rewires next pointers instead of moving values. Each pass cuts
+    // the list into runs of width nodes and merges neighbouring runs, doubling width until one
+    // run is left: O(n log n) time and O(1) extra space. Nodes keep their old positions while
+    // a pair of runs is being merged and take their new ones once the merge is done.
+    public void mergeSort() {
+        int n = renumber(head, 0);
+        for (int width = 1; width < n; width *= 2) {
+            ListNode remaining = head;
+            ListNode tail = null; // Last node merged so far in this pass
+            int position = 0;
+            while (remaining != null) {
+                ListNode left = remaining;
+                ListNode right = split(left, width);
+                remaining = split(right, width);
+                ListNode before = tail;
+                tail = merge(left, right, tail);
+                position = renumber(before == null ? head : before.next, position);
+            }
+        }
+    }
+
+    // Cuts the list after width nodes starting at from and returns the node after the cut
+    private ListNode split(ListNode from, int width) {
+        for (int k = 1; from != null && k < width; k++) {
+            from = from.next;
+        }
+        if (from == null) {
+            return null;
+        }
+        ListNode rest = from.next;
+        if (rest != null) {
+            relink(from, null);
+        }
+        return rest;
+    }
+
+    // Appends the merge of the null-terminated runs a and b after tail, or as the new head when
+    // tail is null, and returns the last node appended
+    private ListNode merge(ListNode a, ListNode b, ListNode tail) {
+        while (a != null && b != null) {
+            listener.onCompare(a, b);
+            ListNode taken;
+            if (a.value <= b.value) {
+                taken = a;
+                a = a.next;
+            } else {
+                taken = b;
+                b = b.next;
+            }
+            tail = append(tail, taken);
+        }
+        tail = append(tail, a != null ? a : b);
+        while (tail.next != null) {
+            tail = tail.next;
+        }
+        return tail;
+    }
+
+    private ListNode append(ListNode tail, ListNode node) {
+        if (tail == null) {
+            head = node;
+        } else {
+            relink(tail, node);
+        }
+        return node;
+    }
+
+    private void relink(ListNode node, ListNode next) {
+        if (node.next != next) {
+            node.next = next;
+            listener.onRelink(node, next);
+        }
+    }
+}
@@ -2,26 +2,46 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class LinkedListSortingVisualizer extends JPanel implements ActionListener {
+public class LinkedListSortingVisualizer extends JPanel implements ActionListener, ListSortListener, ArenaListSortListener {
 
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
     private static final int NODE_SIZE = 40;
     private static final int LIST_SIZE = WIDTH / NODE_SIZE;
-    private Node head = null;
+    private ListNode head = null;
+    private ListNode[] nodes = new ListNode[LIST_SIZE]; // Every node, reachable from head or not
+    private ArenaList arena; // The list while the arena layout is selected
+    private ListLayout layout = ListLayout.OBJECT;
     private boolean isSorting = false;
     private final JButton bubbleSortButton = new JButton("Bubble Sort");
     private final JButton selectionSortButton = new JButton("Selection Sort");
     private final JButton insertionSortButton = new JButton("Insertion Sort");
+    private final JButton mergeSortButton = new JButton("Merge Sort");
     private final JButton unsortButton = new JButton("Unsort");
     private final JButton mainMenu = new JButton("Main Menu");
+    private final JComboBox<String> layoutBox = new JComboBox<>();
+    private final JComboBox<String> distributionBox = new JComboBox<>();
+    private final JTextField seedField = new JTextField(); // Same seed, same list
+    private final JButton exportButton = new JButton("Export CSV");
+    private volatile SortCounters counters; // Counters of the current or last run, read on each repaint
+    private volatile String hudTitle;
+    private final List<String> runLog = new ArrayList<>(); // CSV rows of the finished runs
+    private long seed = ThreadLocalRandom.current().nextLong();
     private JSlider speedSlider;
     private JButton pauseButton;
-    private boolean isPaused = false;
-    private int delay = 10; // Default delay
+    private final JButton stepButton = new JButton("Step");
+    private volatile RunController controller = new RunController(); // Pause, step and cancel of the current run
+    private volatile int delay = 10; // Default delay, read by the sort thread
     private int[] colorArray = new int[LIST_SIZE]; // Array to track colors of the nodes
+    // Positions currently highlighted, -1 for none. Kept as positions because a relinking sort
+    // may renumber the nodes before the highlight is cleared.
+    private int highlightA = -1;
+    private int highlightB = -1;
 
     public LinkedListSortingVisualizer() {
         setPreferredSize(new Dimension(950, 790));
@@ -32,30 +52,64 @@ public class LinkedListSortingVisualizer extends JPanel implements ActionListene
     }
 
     private void initList() {
-        Random rand = new Random();
-        head = null;
-        // Initialize the linked list with random values
+        // Initialize the linked list with values of the selected distribution
+        InputDistribution distribution = InputDistribution.values()[Math.max(0, distributionBox.getSelectedIndex())];
+        int[] values = new InputGenerator(seed).setMaxValue(HEIGHT).generate(distribution, LIST_SIZE);
         for (int i = 0; i < LIST_SIZE; i++) {
-            Node newNode = new Node(rand.nextInt(HEIGHT), null);
+            colorArray[i] = 0; // Default color (Unsorted)
+        }
+        seedField.setText(Long.toString(seed));
+        buildList(values);
+    }
+
+    // Builds the list in the selected layout, appending through a tail pointer
+    private void buildList(int[] values) {
+        if (layout == ListLayout.ARENA) {
+            arena = ArenaList.fromValues(values);
+            return;
+        }
+        head = null;
+        ListNode tail = null;
+        for (int i = 0; i < values.length; i++) {
+            ListNode newNode = new ListNode(values[i], null);
+            newNode.position = i;
+            nodes[i] = newNode;
             if (head == null) {
                 head = newNode;
             } else {
-                Node temp = head;
-                while (temp.next != null) {
-                    temp = temp.next;
-                }
-                temp.next = newNode;
+                tail.next = newNode;
             }
-            colorArray[i] = 0; // Default color (Unsorted)
+            tail = newNode;
         }
     }
 
+    // Values in list order, from whichever layout is current
+    private int[] listValues() {
+        if (layout == ListLayout.ARENA) {
+            return arena.toArray();
+        }
+        int[] values = new int[LIST_SIZE];
+        int i = 0;
+        for (ListNode temp = head; temp != null; temp = temp.next) {
+            values[i++] = temp.value;
+        }
+        return values;
+    }
+
+    // Moves the current list into the other layout; positions, and so the colors, carry over
+    private void switchLayout() {
+        int[] values = listValues();
+        layout = ListLayout.values()[layoutBox.getSelectedIndex()];
+        buildList(values);
+        repaint();
+    }
+
     private void setupGUI() {
         setLayout(new BorderLayout());
 
         // GridLayout for buttons
         JPanel buttonPanel = new JPanel();
-        buttonPanel.setLayout(new GridLayout(2, 3, 10, 10));
+        buttonPanel.setLayout(new GridLayout(3, 6, 10, 10));
         buttonPanel.setBackground(new Color(40, 40, 40));
 
         speedSlider = new JSlider(10, 100, delay);
@@ -63,30 +117,52 @@ public class LinkedListSortingVisualizer extends JPanel implements ActionListene
 
         pauseButton = new JButton("Pause");
         pauseButton.addActionListener(this);
+        stepButton.addActionListener(this);
+        stepButton.setEnabled(false);
 
         bubbleSortButton.addActionListener(this);
         selectionSortButton.addActionListener(this);
         insertionSortButton.addActionListener(this);
+        mergeSortButton.addActionListener(this);
         unsortButton.addActionListener(e -> unsortList());
         mainMenu.addActionListener(this);
-
+        for (ListLayout choice : ListLayout.values()) {
+            layoutBox.addItem(choice.getDisplayName());
+        }
+        layoutBox.addActionListener(e -> switchLayout());
+        for (InputDistribution distribution : InputDistribution.values()) {
+            distributionBox.addItem(distribution.getDisplayName());
+        }
+        distributionBox.addActionListener(e -> regenerate());
+        seedField.setToolTipText("Seed of the list; press Enter to regenerate it");
+        seedField.addActionListener(e -> applySeed());
+        exportButton.addActionListener(e -> CounterHud.exportCsv(this, runLog));
 
         styleButton(bubbleSortButton);
         styleButton(selectionSortButton);
         styleButton(insertionSortButton);
+        styleButton(mergeSortButton);
         styleButton(unsortButton);
         styleButton(pauseButton);
+        styleButton(stepButton);
         styleButton(mainMenu);
+        styleButton(exportButton);
         speedSlider.setBackground(new Color(50, 50, 50));
         speedSlider.setForeground(Color.WHITE);
 
         buttonPanel.add(bubbleSortButton);
         buttonPanel.add(selectionSortButton);
         buttonPanel.add(insertionSortButton);
+        buttonPanel.add(mergeSortButton);
         buttonPanel.add(unsortButton);
+        buttonPanel.add(layoutBox);
+        buttonPanel.add(distributionBox);
+        buttonPanel.add(seedField);
         buttonPanel.add(pauseButton);
+        buttonPanel.add(stepButton);
         buttonPanel.add(mainMenu);
         buttonPanel.add(speedSlider);
+        buttonPanel.add(exportButton);
 
         add(buttonPanel, BorderLayout.SOUTH);
 
@@ -106,57 +182,48 @@ public class LinkedListSortingVisualizer extends JPanel implements ActionListene
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        Node temp = head;
-        int i = 0;
-        while (temp != null) {
-            // Set color based on the node's state (using colorArray)
-            if (colorArray[i] == 0) {
-                g.setColor(new Color(0, 150, 255)); // Blue for unsorted
-            } else if (colorArray[i] == 1) {
-                g.setColor(Color.YELLOW); // Yellow when comparing
-            } else if (colorArray[i] == 2) {
-                g.setColor(Color.RED); // Red when swapped
-            } else if (colorArray[i] == 3) {
-                g.setColor(Color.GREEN); // Green when sorted
-            }
-            // Draw the node as a circle
-            /*X-co-ordinates denote where the node will be rendered on the x axis, i.e i=0, NODE SIZE=40=> first node will start at 0 pixels
-            * Y-co-ordinates denote where the node will be rendered on the y axis, i,e HEIGHT=600, value=50, NODESIZE/20=> 530, hence the node will be rendered
-            * on the bottom of the screen at 530 pixels.*/
-            g.fillOval(i * NODE_SIZE, HEIGHT - temp.value - NODE_SIZE / 2, NODE_SIZE, NODE_SIZE);
-
-            // Set the text color to white for visibility
-            g.setColor(Color.BLACK);
-            // Draw the value of the node in the center of the circle
-            String value = String.valueOf(temp.value);
-            FontMetrics metrics = g.getFontMetrics();
-            int x = i * NODE_SIZE + (NODE_SIZE - metrics.stringWidth(value)) / 2;
-            int y = HEIGHT - temp.value - NODE_SIZE / 2 + (NODE_SIZE + metrics.getHeight()) / 2;
-            g.drawString(value, x, y);
-
-            // Draw the next pointer line
-            if (temp.next != null) {
-                int currentX = i * NODE_SIZE + NODE_SIZE / 2;
-                int currentY = HEIGHT - temp.value;
-                int nextX = (i + 1) * NODE_SIZE + NODE_SIZE / 2;
-                int nextY = HEIGHT - temp.next.value;
-                g.setColor(Color.WHITE);
-                g.drawLine(currentX, currentY, nextX, nextY); // Line from current node to next node
+        // Nodes are drawn at their position and pointers as they currently are, so a relinking
+        // sort shows its pointer changes before the nodes settle into their new positions
+        for (int k = 0; k < LIST_SIZE; k++) {
+            if (layout == ListLayout.ARENA) {
+                int next = arena.next(k);
+                drawNode(g, arena.position(k), arena.value(k),
+                        next == ArenaList.NIL ? -1 : arena.position(next), next == ArenaList.NIL ? 0 : arena.value(next));
+            } else {
+                ListNode temp = nodes[k];
+                drawNode(g, temp.position, temp.value,
+                        temp.next == null ? -1 : temp.next.position, temp.next == null ? 0 : temp.next.value);
             }
-
-            temp = temp.next;
-            i++;
+        }
+        SortCounters running = counters;
+        if (running != null) {
+            CounterHud.draw(g, hudTitle, running.snapshot(), layout.getDisplayName());
         }
     }
 
+    // Draws the node at position i, colored by its state, and its pointer to the node at nextPosition, -1 for none
+    private void drawNode(Graphics g, int i, int value, int nextPosition, int nextValue) {
+        NodeRenderer.drawNode(g, colorArray[i], NODE_SIZE, HEIGHT, i, value, nextPosition, nextValue);
+    }
+
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == pauseButton) {
-            isPaused = !isPaused;
-            pauseButton.setText(isPaused ? "Resume" : "Pause");
+            if (controller.isPaused()) {
+                controller.resume();
+            } else {
+                controller.pause();
+            }
+            pauseButton.setText(controller.isPaused() ? "Resume" : "Pause");
+            stepButton.setEnabled(controller.isPaused());
             return; // Important: Return to avoid starting a new sort
         }
+        if (e.getSource() == stepButton) {
+            controller.step(1);
+            return;
+        }
         if (e.getSource() == mainMenu) {
+            controller.cancel(); // Wakes the sort thread, which unwinds instead of painting a dead panel
             Window window = SwingUtilities.getWindowAncestor(this);
             window.dispose();
             new SplashScreen();
@@ -167,248 +234,195 @@ public class LinkedListSortingVisualizer extends JPanel implements ActionListene
         isSorting = true;
 
         // Run the sorting algorithms in background using SwingWorker
-        if (e.getSource() == bubbleSortButton) {
-            new SortWorker("Bubble Sort") {
-                @Override
-                protected Void doInBackground() {
-                    bubbleSort();
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == selectionSortButton) {
-            new SortWorker("Selection Sort") {
-                @Override
-                protected Void doInBackground() {
-                    selectionSort();
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == insertionSortButton) {
-            new SortWorker("Insertion Sort") {
-                @Override
-                protected Void doInBackground() {
-                    insertionSort();
-                    return null;
-                }
-            }.execute();
+        ListAlgorithm algorithm = algorithmFor(e.getSource());
+        if (algorithm == null) {
+            isSorting = false;
+            return;
+        }
+        layoutBox.setEnabled(false);
+        distributionBox.setEnabled(false);
+        seedField.setEnabled(false);
+        RunController next = new RunController();
+        if (controller.isPaused()) {
+            next.pause(); // Paused before the start, so the run starts paused
         }
+        controller = next;
+        new SortWorker(algorithm.getDisplayName()) {
+            @Override
+            protected void sort(SortCounters counters) {
+                if (layout == ListLayout.ARENA) {
+                    new ArenaListSortEngine(arena, counters.counting((ArenaListSortListener) LinkedListSortingVisualizer.this))
+                            .sort(algorithm);
+                } else {
+                    LinkedListSortEngine engine = new LinkedListSortEngine(head,
+                            counters.counting((ListSortListener) LinkedListSortingVisualizer.this));
+                    engine.sort(algorithm);
+                    head = engine.getHead(); // Relinking sorts end with a different first node
+                }
+            }
+        }.execute();
     }
 
-    // SwingWorker for handling sorting in background
+    private ListAlgorithm algorithmFor(Object source) {
+        if (source == bubbleSortButton) return ListAlgorithm.BUBBLE;
+        if (source == selectionSortButton) return ListAlgorithm.SELECTION;
+        if (source == insertionSortButton) return ListAlgorithm.INSERTION;
+        if (source == mergeSortButton) return ListAlgorithm.MERGE;
+        return null;
+    }
+
+    // SwingWorker for handling sorting in background. Every operation the sort reports goes
+    // through the run's counters on its way to this panel; relinks count as writes.
     private abstract class SortWorker extends SwingWorker<Void, Void> {
         private final String sortType;
+        private final SortCounters runCounters = new SortCounters();
+        private final InputDistribution distribution = InputDistribution.values()[distributionBox.getSelectedIndex()];
+        private final long runSeed = seed;
+        private final RunController runController = controller;
 
         SortWorker(String sortType) {
             this.sortType = sortType;
+            hudTitle = sortType;
+            counters = runCounters;
+        }
+
+        protected abstract void sort(SortCounters counters);
+
+        @Override
+        protected Void doInBackground() {
+            try {
+                sort(runCounters);
+            } catch (CancellationException ex) {
+                return null; // Cancelled from the main menu; the panel is gone
+            } finally {
+                runCounters.finish();
+            }
+            markSorted();
+            return null;
         }
 
         @Override
         protected void done() {
             isSorting = false; // Reset for next sort
+            layoutBox.setEnabled(true);
+            distributionBox.setEnabled(true);
+            seedField.setEnabled(true);
+            if (runController.isCancelled()) return;
+            runLog.add(runCounters.snapshot().toCsv(sortType + " (" + layout.name() + ")", LIST_SIZE,
+                    distribution.name(), runSeed));
         }
     }
 
-    // Sorting Algorithms
-    private void bubbleSort() {
-        Node temp = head;
-        boolean swapped;
-        do {
-            swapped = false;
-            Node current = head;
-            while (current != null && current.next != null) {
-                // Set colors for comparison and swap
-                colorArray[getNodeIndex(current)] = 1; // Yellow for comparison
-                colorArray[getNodeIndex(current.next)] = 1;
-                try { Thread.sleep(delay);
-                    while (isPaused) {
-                        Thread.sleep(100); // Check pause status periodically
-                    }
-                }
-                catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-                SwingUtilities.invokeLater(this::repaint);
-
-                if (current.value > current.next.value) {
-                    // Swap nodes
-                    int tempValue = current.value;
-                    current.value = current.next.value;
-                    current.next.value = tempValue;
-                    swapped = true;
-
-                    // Set colors for swap
-                    colorArray[getNodeIndex(current)] = 2; // Red for swap
-                    colorArray[getNodeIndex(current.next)] = 2;
-                    try { Thread.sleep(delay);
-                        while (isPaused) {
-                            Thread.sleep(100); // Check pause status periodically
-                        }
-                    }
-                    catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-                SwingUtilities.invokeLater(this::repaint);
-
-                // Reset comparison colors
-                colorArray[getNodeIndex(current)] = 0;
-                colorArray[getNodeIndex(current.next)] = 0;
-                current = current.next;
-            }
-        } while (swapped);
+    // The LinkedListSortEngine reports every comparison and swap here
+    @Override
+    public void onCompare(ListNode a, ListNode b) {
+        compared(getNodeIndex(a), getNodeIndex(b));
+    }
 
-        // Set all nodes to green when sorted
-        temp = head;
-        while (temp != null) {
-            colorArray[getNodeIndex(temp)] = 3; // Green for sorted
-            temp = temp.next;
-        }
-        repaint();
+    @Override
+    public void onSwap(ListNode a, ListNode b) {
+        swapped(getNodeIndex(a), getNodeIndex(b));
     }
 
-    private void selectionSort() {
-        Node current = head;
-        while (current != null) {
-            Node minNode = current;
-            Node tempNode = current.next;
-            while (tempNode != null) {
-                // Set colors for comparison
-                colorArray[getNodeIndex(current)] = 1;
-                colorArray[getNodeIndex(tempNode)] = 1;
-                try { Thread.sleep(delay);
-                    while (isPaused) {
-                        Thread.sleep(100); // Check pause status periodically
-                    }
-                }
-                catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-                SwingUtilities.invokeLater(this::repaint);
+    @Override
+    public void onRelink(ListNode node, ListNode next) {
+        relinked(getNodeIndex(node));
+    }
 
-                if (tempNode.value < minNode.value) {
-                    minNode = tempNode;
-                }
+    // The ArenaListSortEngine reports the same events by arena index
+    @Override
+    public void onCompare(int a, int b) {
+        compared(arena.position(a), arena.position(b));
+    }
 
-                // Reset comparison colors
-                colorArray[getNodeIndex(current)] = 0;
-                colorArray[getNodeIndex(tempNode)] = 0;
-                tempNode = tempNode.next;
-            }
+    @Override
+    public void onSwap(int a, int b) {
+        swapped(arena.position(a), arena.position(b));
+    }
 
-            if (minNode != current) {
-                // Swap values
-                int tempValue = current.value;
-                current.value = minNode.value;
-                minNode.value = tempValue;
-
-                // Set colors for swap
-                colorArray[getNodeIndex(current)] = 2; // Red for swap
-                colorArray[getNodeIndex(minNode)] = 2;
-                try { Thread.sleep(delay);
-                    while (isPaused) {
-                        Thread.sleep(100); // Check pause status periodically
-                    }
-                }
-                catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-            SwingUtilities.invokeLater(this::repaint);
+    @Override
+    public void onRelink(int node, int next) {
+        relinked(arena.position(node));
+    }
 
-            current = current.next;
-        }
+    private void compared(int a, int b) {
+        resetHighlight();
+        highlightA = a;
+        highlightB = b;
+        colorArray[a] = 1; // Yellow for comparison
+        colorArray[b] = 1;
+        pause();
+        SwingUtilities.invokeLater(this::repaint);
+    }
 
-        // Set all nodes to green when sorted
-        Node temp = head;
-        while (temp != null) {
-            colorArray[getNodeIndex(temp)] = 3; // Green for sorted
-            temp = temp.next;
-        }
-        repaint();
+    private void swapped(int a, int b) {
+        colorArray[a] = 2; // Red for swap
+        colorArray[b] = 2;
+        pause();
+        SwingUtilities.invokeLater(this::repaint);
     }
 
-    private void insertionSort() {
-        Node current = head;
-        while (current != null) {
-            Node nextNode = current.next;
-            while (nextNode != null) {
-                // Set colors for comparison
-                colorArray[getNodeIndex(current)] = 1;
-                colorArray[getNodeIndex(nextNode)] = 1;
-                try { Thread.sleep(delay);
-                    while (isPaused) {
-                        Thread.sleep(100); // Check pause status periodically
-                    }
-                }
-                catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-                SwingUtilities.invokeLater(this::repaint);
-
-                if (current.value > nextNode.value) {
-                    // Swap values
-                    int tempValue = current.value;
-                    current.value = nextNode.value;
-                    nextNode.value = tempValue;
-
-                    // Set colors for swap
-                    colorArray[getNodeIndex(current)] = 2; // Red for swap
-                    colorArray[getNodeIndex(nextNode)] = 2;
-                    try { Thread.sleep(delay);
-                        while (isPaused) {
-                            Thread.sleep(100); // Check pause status periodically
-                        }
-                    }
-                    catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
-                    }
-                    SwingUtilities.invokeLater(this::repaint);
-                }
+    private void relinked(int node) {
+        resetHighlight();
+        highlightA = node;
+        highlightB = node;
+        colorArray[node] = 2; // Red for the node whose pointer moved
+        pause();
+        SwingUtilities.invokeLater(this::repaint);
+    }
 
-                // Reset comparison colors
-                colorArray[getNodeIndex(current)] = 0;
-                colorArray[getNodeIndex(nextNode)] = 0;
-                nextNode = nextNode.next;
-            }
-            current = current.next;
+    // Reset the colors of the previously compared pair
+    private void resetHighlight() {
+        if (highlightA >= 0) {
+            colorArray[highlightA] = 0;
+            colorArray[highlightB] = 0;
         }
+        highlightA = -1;
+        highlightB = -1;
+    }
+
+    // Shows the current step for delay milliseconds, then holds the sort while paused
+    private void pause() {
+        controller.sleep(delay);
+    }
 
-        // Set all nodes to green when sorted
-        Node temp = head;
-        while (temp != null) {
-            colorArray[getNodeIndex(temp)] = 3; // Green for sorted
-            temp = temp.next;
+    private void markSorted() {
+        highlightA = -1;
+        highlightB = -1;
+        // Set all nodes to green when sorted; every position holds a node of the list
+        for (int i = 0; i < LIST_SIZE; i++) {
+            colorArray[i] = 3; // Green for sorted
         }
-        repaint();
+        SwingUtilities.invokeLater(this::repaint);
     }
 
     private void unsortList() {
-        // Reset the list and colors
+        // Reset the list and colors with a fresh seed
+        if (isSorting) return;
+        seed = ThreadLocalRandom.current().nextLong();
+        regenerate();
+    }
+
+    private void regenerate() {
+        if (isSorting) return;
         initList();
         repaint();
     }
 
-    // LinkedList Node class
-    private static class Node {
-        int value;
-        Node next;
-
-        Node(int value, Node next) {
-            this.value = value;
-            this.next = next;
+    // Rebuilds the list from the seed typed into the seed field
+    private void applySeed() {
+        try {
+            seed = Long.parseLong(seedField.getText().trim());
+        } catch (NumberFormatException ex) {
+            seedField.setText(Long.toString(seed));
+            return;
         }
+        regenerate();
     }
 
-    // Helper method to find node index
-    private int getNodeIndex(Node node) {
-        int index = 0;
-        Node temp = head;
-        while (temp != null) {
-            if (temp == node) return index;
-            temp = temp.next;
-            index++;
-        }
-        return -1; // Node not found
+    // Helper method to find node index; nodes keep their own position, so this is O(1)
+    private int getNodeIndex(ListNode node) {
+        return node.position;
     }
 
 }
@@ -0,0 +1,32 @@
+import java.util.function.Consumer;
+
+// Every algorithm the linked list engines know how to run, with the label shown on the buttons
+// and its implementation for each ListLayout
+public enum ListAlgorithm {
+    BUBBLE("Bubble Sort", LinkedListSortEngine::bubbleSort, ArenaListSortEngine::bubbleSort),
+    SELECTION("Selection Sort", LinkedListSortEngine::selectionSort, ArenaListSortEngine::selectionSort),
+    INSERTION("Insertion Sort", LinkedListSortEngine::insertionSort, ArenaListSortEngine::insertionSort),
+    MERGE("Merge Sort", LinkedListSortEngine::mergeSort, ArenaListSortEngine::mergeSort);
+
+    private final String displayName;
+    private final Consumer<LinkedListSortEngine> body;
+    private final Consumer<ArenaListSortEngine> arenaBody;
+
+    ListAlgorithm(String displayName, Consumer<LinkedListSortEngine> body, Consumer<ArenaListSortEngine> arenaBody) {
+        this.displayName = displayName;
+        this.body = body;
+        this.arenaBody = arenaBody;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    void sort(LinkedListSortEngine engine) {
+        body.accept(engine);
+    }
+
+    void sort(ArenaListSortEngine engine) {
+        arenaBody.accept(engine);
+    }
+}
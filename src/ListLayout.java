@@ -0,0 +1,16 @@
+// How the linked list sorts store their nodes: one heap object per node, or an ArenaList of
+// parallel int arrays that traversals walk without chasing object references
+public enum ListLayout {
+    OBJECT("Object Nodes"),
+    ARENA("Arena Arrays");
+
+    private final String displayName;
+
+    ListLayout(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,11 @@
+// Singly linked list node shared by the linked list engine and visualizer
+class ListNode {
+    int value;
+    ListNode next;
+    int position; // Index in its list; whoever relinks nodes must renumber the ones that moved
+
+    ListNode(int value, ListNode next) {
+        this.value = value;
+        this.next = next;
+    }
+}
@@ -0,0 +1,13 @@
+// Linked list counterpart of SortListener: events name the nodes involved rather than indices
+public interface ListSortListener {
+    ListSortListener NONE = new ListSortListener() { };
+
+    // Values of a and b were compared
+    default void onCompare(ListNode a, ListNode b) { }
+
+    // Values of a and b were exchanged
+    default void onSwap(ListNode a, ListNode b) { }
+
+    // node.next now points at next (null when a sublist was split off after node)
+    default void onRelink(ListNode node, ListNode next) { }
+}
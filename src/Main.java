@@ -1,5 +1,10 @@
+// Opens the visualizer, or with arguments sorts headless through BatchSort, which never loads AWT
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            BatchSort.main(args);
+            return;
+        }
         new SplashScreen();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+// Merge sorts that allocate nothing while they merge, unlike mergeSort's two fresh arrays per
+// merge. The ping-pong sort takes one scratch buffer the size of the array from the engine and
+// merges bottom-up between the two, each pass reading from one and writing into the other, so
+// nothing is ever copied back: the width of the initial insertion-sorted runs is picked so the
+// number of passes is even and the last one lands in the array. The in-place sort uses no buffer
+// at all. It merges two neighbouring runs by rotating the block between them into place, which
+// leaves two smaller merges, at the price of O(n log^2 n) moves.
+//
+// Values stored in the scratch buffer are reported through SortListener.onScratchWrite.
+final class MergeSorts {
+
+    // The ping-pong sort starts from insertion-sorted runs of this width or half of it
+    static final int RUN_WIDTH = 32;
+
+    private MergeSorts() {
+    }
+
+    static void pingPongMergeSort(SortEngine engine) {
+        int n = engine.length();
+        if (n <= RUN_WIDTH) {
+            engine.insertionSort(0, n - 1);
+            return;
+        }
+        // Halving the run width adds exactly one pass, so one of the two widths gives an even count
+        int width = RUN_WIDTH;
+        if (passes(n, width) % 2 != 0) {
+            width /= 2;
+        }
+        for (int low = 0; low < n; low += width) {
+            engine.insertionSort(low, Math.min(low + width, n) - 1);
+        }
+        mergePasses(engine, width);
+    }
+
+    // Merges sorted runs of width bottom-up between the array and the scratch buffer. With an odd
+    // number of passes the result ends up in the buffer and is written back to the array.
+    static void mergePasses(SortEngine engine, int width) {
+        int n = engine.length();
+        int[] array = engine.getArray();
+        int[] scratch = engine.scratch(n);
+        boolean intoScratch = true;
+        for (; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + 2 * width, n);
+                engine.range(low, high - 1);
+                merge(engine, intoScratch ? array : scratch, intoScratch, low, mid, high);
+            }
+            intoScratch = !intoScratch;
+        }
+        if (!intoScratch) {
+            engine.range(0, n - 1);
+            for (int k = 0; k < n; k++) {
+                engine.write(k, scratch[k]);
+            }
+        }
+    }
+
+    // Merge passes needed to grow runs of width to the whole array
+    private static int passes(int n, int width) {
+        int passes = 0;
+        for (long w = width; w < n; w *= 2) {
+            passes++;
+        }
+        return passes;
+    }
+
+    // Merges source[low, mid) and source[mid, high) into the same range of the scratch buffer, or
+    // of the array when source is the scratch buffer. A lone run at the end is copied across.
+    private static void merge(SortEngine engine, int[] source, boolean intoScratch, int low, int mid, int high) {
+        int i = low;
+        int j = mid;
+        for (int k = low; k < high; k++) {
+            int value;
+            if (j >= high) {
+                value = source[i++];
+            } else if (i >= mid) {
+                value = source[j++];
+            } else {
+                engine.compared(i, j);
+                value = source[j] < source[i] ? source[j++] : source[i++];
+            }
+            if (intoScratch) {
+                engine.scratchWrite(k, value);
+            } else {
+                engine.write(k, value);
+            }
+        }
+    }
+
+    static void inPlaceMergeSort(SortEngine engine) {
+        inPlaceMergeSort(engine, 0, engine.length());
+    }
+
+    // Sorts [low, high)
+    private static void inPlaceMergeSort(SortEngine engine, int low, int high) {
+        if (high - low <= HybridSorts.INSERTION_CUTOFF) {
+            engine.insertionSort(low, high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        inPlaceMergeSort(engine, low, mid);
+        inPlaceMergeSort(engine, mid, high);
+        engine.range(low, high - 1);
+        rotationMerge(engine, low, mid, high);
+    }
+
+    // Merges the sorted runs [low, mid) and [mid, high) in place and stably. The longer run is cut
+    // in half and the other one where its middle element belongs; rotating the elements between
+    // the cuts leaves two independent merges of the parts. Recurses into the smaller one and loops
+    // on the larger, so the stack stays O(log n) deep.
+    static void rotationMerge(SortEngine engine, int low, int mid, int high) {
+        int[] array = engine.getArray();
+        while (low < mid && mid < high) {
+            engine.compared(mid - 1, mid);
+            if (array[mid - 1] <= array[mid]) {
+                return; // Already in order
+            }
+            if (mid - low == 1 && high - mid == 1) {
+                engine.swap(low, mid);
+                return;
+            }
+            int leftCut;
+            int rightCut;
+            if (mid - low >= high - mid) {
+                leftCut = low + (mid - low) / 2;
+                rightCut = lowerBound(engine, mid, high, leftCut);
+            } else {
+                rightCut = mid + (high - mid) / 2;
+                leftCut = upperBound(engine, low, mid, rightCut);
+            }
+            rotate(engine, leftCut, mid, rightCut);
+            int newMid = leftCut + (rightCut - mid);
+            if (newMid - low < high - newMid) {
+                rotationMerge(engine, low, leftCut, newMid);
+                low = newMid;
+                mid = rightCut;
+            } else {
+                rotationMerge(engine, newMid, rightCut, high);
+                high = newMid;
+                mid = leftCut;
+            }
+        }
+    }
+
+    // First index in [from, to) whose value is not less than the value at key
+    private static int lowerBound(SortEngine engine, int from, int to, int key) {
+        int[] array = engine.getArray();
+        while (from < to) {
+            int m = (from + to) >>> 1;
+            engine.compared(m, key);
+            if (array[m] < array[key]) {
+                from = m + 1;
+            } else {
+                to = m;
+            }
+        }
+        return from;
+    }
+
+    // First index in [from, to) whose value is greater than the value at key
+    private static int upperBound(SortEngine engine, int from, int to, int key) {
+        int[] array = engine.getArray();
+        while (from < to) {
+            int m = (from + to) >>> 1;
+            engine.compared(m, key);
+            if (array[m] <= array[key]) {
+                from = m + 1;
+            } else {
+                to = m;
+            }
+        }
+        return from;
+    }
+
+    // Turns [from, mid) [mid, to) into [mid, to) [from, mid) with three reversals
+    private static void rotate(SortEngine engine, int from, int mid, int to) {
+        if (from == mid || mid == to) return;
+        reverse(engine, from, mid);
+        reverse(engine, mid, to);
+        reverse(engine, from, to);
+    }
+
+    private static void reverse(SortEngine engine, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            engine.swap(i, j);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.awt.*;
+
+// Draws linked list nodes the way the list view does: a circle per node at its position, raised by
+// its value, with its value inside and a line to the node its next pointer leads to. Shared by
+// LinkedListSortingVisualizer and the offscreen ClipExporter.
+final class NodeRenderer {
+
+    // Node states, as kept in the list view's colorArray
+    static final int UNSORTED = 0;
+    static final int COMPARING = 1;
+    static final int CHANGED = 2;
+    static final int SORTED = 3;
+
+    private static final Color UNSORTED_COLOR = new Color(0, 150, 255);
+
+    private NodeRenderer() {
+    }
+
+    static Color colorOf(int state) {
+        switch (state) {
+            case COMPARING:
+                return Color.YELLOW;
+            case CHANGED:
+                return Color.RED;
+            case SORTED:
+                return Color.GREEN;
+            default:
+                return UNSORTED_COLOR;
+        }
+    }
+
+    // Draws the node at position i and its pointer to the node at nextPosition, -1 for none, on a
+    // canvas height pixels high where each node takes nodeSize pixels of width
+    static void drawNode(Graphics g, int state, int nodeSize, int height, int i, int value, int nextPosition, int nextValue) {
+        g.setColor(colorOf(state));
+        // Nodes sit on x = i * nodeSize and rise with their value from the bottom of the canvas
+        g.fillOval(i * nodeSize, height - value - nodeSize / 2, nodeSize, nodeSize);
+
+        // Draw the value of the node in the center of the circle
+        g.setColor(Color.BLACK);
+        String text = String.valueOf(value);
+        FontMetrics metrics = g.getFontMetrics();
+        if (metrics.stringWidth(text) <= nodeSize) {
+            int x = i * nodeSize + (nodeSize - metrics.stringWidth(text)) / 2;
+            int y = height - value - nodeSize / 2 + (nodeSize + metrics.getHeight()) / 2;
+            g.drawString(text, x, y);
+        }
+
+        // Draw the next pointer line
+        if (nextPosition >= 0) {
+            int currentX = i * nodeSize + nodeSize / 2;
+            int currentY = height - value;
+            int nextX = nextPosition * nodeSize + nodeSize / 2;
+            int nextY = height - nextValue;
+            g.setColor(Color.WHITE);
+            g.drawLine(currentX, currentY, nextX, nextY); // Line from current node to next node
+        }
+    }
+}
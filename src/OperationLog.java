@@ -0,0 +1,146 @@
+// Records the swaps and writes of a sort run so any point of it can be shown again. Each
+// operation is packed into one long in a ring buffer, and every checkpointInterval operations a
+// full copy of the array is kept. restore(p) copies the nearest checkpoint at or before p and
+// replays at most checkpointInterval operations, so seeking costs the same anywhere in the run.
+//
+// Memory is fixed up front: once the ring is full the oldest operations are overwritten, along
+// with the checkpoints only they needed, and the timeline covers the most recent capacity
+// operations. The checkpoint interval is chosen so all checkpoints together fit the budget.
+//
+// Checkpoints are copied from a shadow array that replays every recorded operation, never from
+// the array being sorted, so they stay consistent even while parallel sorts record from several
+// threads at once.
+class OperationLog {
+
+    static final int DEFAULT_CAPACITY = 1 << 22; // Operations kept: 32 MB
+    static final long DEFAULT_CHECKPOINT_INTS = 1 << 23; // Ints spent on checkpoints: 32 MB
+    static final int MIN_CHECKPOINT_INTERVAL = 1 << 10;
+
+    // An operation is a write when the top bit is set: index in bits 62-32 and value in the low 32.
+    // Otherwise it is a swap of the indices in bits 62-32 and the low 32.
+    private static final long WRITE = 1L << 63;
+    private static final long INDEX_MASK = 0x7FFF_FFFFL;
+
+    private final long[] operations;
+    private final int mask;
+    private final int[] shadow; // The array after every operation recorded so far
+    private final int[][] checkpoints; // Checkpoint c, the state before operation c * interval, sits at c % length
+    private final int interval;
+    private final int intervalShift;
+    private long size; // Operations recorded, including ones overwritten since
+
+    // capacity is rounded up to a power of two
+    OperationLog(int[] initial, int capacity, long checkpointInts) {
+        int ringSize = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        operations = new long[ringSize];
+        mask = ringSize - 1;
+        shadow = initial.clone();
+        // The checkpoints covering a full ring number ringSize / interval + 1
+        int chosen = Math.min(MIN_CHECKPOINT_INTERVAL, ringSize);
+        while (chosen < ringSize && (long) (ringSize / chosen + 1) * Math.max(1, shadow.length) > checkpointInts) {
+            chosen <<= 1;
+        }
+        interval = chosen;
+        intervalShift = Integer.numberOfTrailingZeros(chosen);
+        checkpoints = new int[ringSize / chosen + 1][];
+        checkpoints[0] = shadow.clone();
+    }
+
+    OperationLog(int[] initial) {
+        this(initial, DEFAULT_CAPACITY, DEFAULT_CHECKPOINT_INTS);
+    }
+
+    // Whether logging an array of this size fits the default budget with two checkpoints or more
+    static boolean fits(int length) {
+        return 2L * length <= DEFAULT_CHECKPOINT_INTS;
+    }
+
+    int getCheckpointInterval() {
+        return interval;
+    }
+
+    synchronized void swap(int i, int j) {
+        record(swapOperation(i, j));
+    }
+
+    synchronized void write(int index, int value) {
+        record(writeOperation(index, value));
+    }
+
+    private void record(long operation) {
+        operations[(int) (size & mask)] = operation;
+        apply(operation, shadow);
+        size++;
+        if ((size & (interval - 1)) == 0) {
+            int slot = (int) ((size >>> intervalShift) % checkpoints.length);
+            if (checkpoints[slot] == null) {
+                checkpoints[slot] = shadow.clone();
+            } else {
+                System.arraycopy(shadow, 0, checkpoints[slot], 0, shadow.length);
+            }
+        }
+    }
+
+    // Operations recorded so far; the timeline ends here
+    synchronized long size() {
+        return size;
+    }
+
+    // First position that can still be restored
+    synchronized long start() {
+        long oldest = Math.max(0, size - operations.length);
+        return ((oldest + interval - 1) >>> intervalShift) << intervalShift;
+    }
+
+    // Overwrites target with the array as it was after the first position operations
+    synchronized void restore(long position, int[] target) {
+        if (position < start() || position > size) {
+            throw new IllegalArgumentException("Position " + position + " is outside [" + start() + ", " + size + "]");
+        }
+        long checkpoint = position >>> intervalShift;
+        System.arraycopy(checkpoints[(int) (checkpoint % checkpoints.length)], 0, target, 0, shadow.length);
+        for (long p = checkpoint << intervalShift; p < position; p++) {
+            apply(operations[(int) (p & mask)], target);
+        }
+    }
+
+    // The operation at position, as recorded
+    synchronized long operation(long position) {
+        if (position < Math.max(0, size - operations.length) || position >= size) {
+            throw new IllegalArgumentException("Operation " + position + " is no longer in the log");
+        }
+        return operations[(int) (position & mask)];
+    }
+
+    static long swapOperation(int i, int j) {
+        return ((long) i << 32) | j;
+    }
+
+    static long writeOperation(int index, int value) {
+        return WRITE | ((long) index << 32) | (value & 0xFFFF_FFFFL);
+    }
+
+    static boolean isWrite(long operation) {
+        return operation < 0;
+    }
+
+    static int first(long operation) {
+        return (int) ((operation >>> 32) & INDEX_MASK);
+    }
+
+    static int second(long operation) {
+        return (int) operation;
+    }
+
+    static void apply(long operation, int[] array) {
+        int index = first(operation);
+        if (isWrite(operation)) {
+            array[index] = second(operation);
+        } else {
+            int j = second(operation);
+            int temp = array[index];
+            array[index] = array[j];
+            array[j] = temp;
+        }
+    }
+}
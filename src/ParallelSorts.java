@@ -0,0 +1,107 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Fork/join versions of the SortEngine algorithms. Every run gets its own ForkJoinPool sized by
+// SortEngine.getParallelism(), and ranges below SEQUENTIAL_THRESHOLD fall back to the sequential
+// algorithm on the worker that owns them. Listener events arrive from several worker threads.
+final class ParallelSorts {
+
+    static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private ParallelSorts() {
+    }
+
+    static void mergeSort(SortEngine engine) {
+        run(engine, new MergeSortTask(engine, 0, engine.length() - 1));
+    }
+
+    static void quickSort(SortEngine engine) {
+        run(engine, new QuickSortTask(engine, 0, engine.length() - 1));
+    }
+
+    private static void run(SortEngine engine, RecursiveAction task) {
+        ForkJoinPool pool = new ForkJoinPool(engine.getParallelism());
+        try {
+            pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Sorts [left, right] by sorting both halves in parallel and then merging them
+    private static class MergeSortTask extends RecursiveAction {
+        private final SortEngine engine;
+        private final int left;
+        private final int right;
+
+        MergeSortTask(SortEngine engine, int left, int right) {
+            this.engine = engine;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left < SEQUENTIAL_THRESHOLD) {
+                engine.range(left, right);
+                engine.mergeSort(left, right);
+                return;
+            }
+            int mid = (left + right) / 2;
+            invokeAll(new MergeSortTask(engine, left, mid), new MergeSortTask(engine, mid + 1, right));
+            engine.merge(left, mid, right);
+        }
+    }
+
+    // Partitions [low, high] around a ninther pivot into less, equal and greater parts, forks the
+    // smaller side and keeps partitioning the larger one, so idle workers steal whole subranges.
+    // Like introsort, a range that is still being split depthLimit partitions deep goes to heap
+    // sort, so no input drives the sort quadratic.
+    private static class QuickSortTask extends RecursiveAction {
+        private final SortEngine engine;
+        private final int low;
+        private final int high;
+        private final int depthLimit;
+        private QuickSortTask next; // Chains the tasks a parent forked so it can join them all
+
+        QuickSortTask(SortEngine engine, int low, int high) {
+            this(engine, low, high, QuickSorts.depthLimit(high - low + 1));
+        }
+
+        private QuickSortTask(SortEngine engine, int low, int high, int depthLimit) {
+            this.engine = engine;
+            this.low = low;
+            this.high = high;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            int lo = low;
+            int hi = high;
+            int depth = depthLimit;
+            int[] parts = new int[4];
+            QuickSortTask forked = null;
+            while (hi - lo >= SEQUENTIAL_THRESHOLD && depth > 0) {
+                depth--;
+                QuickSorts.partitionThreeWay(engine, lo, hi, parts);
+                QuickSortTask smaller;
+                if (parts[1] - parts[0] < parts[3] - parts[2]) {
+                    smaller = new QuickSortTask(engine, parts[0], parts[1], depth);
+                    lo = parts[2];
+                } else {
+                    smaller = new QuickSortTask(engine, parts[2], parts[3], depth);
+                    hi = parts[1];
+                }
+                smaller.next = forked;
+                forked = smaller;
+                smaller.fork();
+            }
+            engine.range(lo, hi);
+            QuickSorts.introQuickSort(engine, lo, hi, depth);
+            for (QuickSortTask task = forked; task != null; task = task.next) {
+                task.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+// How the iterative quick sort splits a range around its pivot
+public enum PartitionScheme {
+    LOMUTO("Lomuto"),         // One scan, pivot at the end; equal keys all fall on one side
+    HOARE("Hoare"),           // Two scans from both ends; fewer swaps, equal keys split evenly
+    THREE_WAY("Three-way"),   // Dutch flag: < pivot, == pivot, > pivot; equal keys are done at once
+    DUAL_PIVOT("Dual pivot"); // Two pivots and three parts, as in the JDK's int sort
+
+    private final String displayName;
+
+    PartitionScheme(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,60 @@
+// What the iterative quick sort's last run looked like. Depth is the recursion depth the
+// recursive version would have reached, stack is the most ranges the explicit stack held at
+// once. Balance is the share of a partitioned range left out of its largest remaining part:
+// 0.5 for an even split in two, 0.67 for an even split in three, near 0 when the pivot was
+// the minimum or maximum, and 1 when a three-way partition found every key equal.
+public class PartitionStats {
+
+    private int maxDepth;
+    private int maxStack;
+    private long partitions;
+    private double balanceSum;
+    private double worstBalance = 1;
+
+    void reset() {
+        maxDepth = 0;
+        maxStack = 0;
+        partitions = 0;
+        balanceSum = 0;
+        worstBalance = 1;
+    }
+
+    void depth(int depth, int stack) {
+        maxDepth = Math.max(maxDepth, depth);
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    // A range of size elements was partitioned and its largest part still to sort holds largest of them
+    void partitioned(int largest, int size) {
+        double balance = 1 - (double) largest / size;
+        partitions++;
+        balanceSum += balance;
+        worstBalance = Math.min(worstBalance, balance);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    public long getPartitions() {
+        return partitions;
+    }
+
+    public double getMeanBalance() {
+        return partitions == 0 ? 1 : balanceSum / partitions;
+    }
+
+    public double getWorstBalance() {
+        return worstBalance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %,d, stack %,d, %,d partitions, balance %.3f mean / %.3f worst",
+                maxDepth, maxStack, partitions, getMeanBalance(), worstBalance);
+    }
+}
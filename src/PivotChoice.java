@@ -0,0 +1,16 @@
+// Which element of a range the iterative quick sort partitions around
+public enum PivotChoice {
+    RANDOM("Random pivot"),
+    MEDIAN_OF_THREE("Median of three"), // First, middle and last element
+    NINTHER("Ninther");                 // Median of the medians of three spread-out triples
+
+    private final String displayName;
+
+    PivotChoice(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
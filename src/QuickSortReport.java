@@ -0,0 +1,42 @@
+// Headless comparison of every partition scheme and pivot choice of the iterative quick sort on
+// inputs that break naive quick sorts, generated from a fixed seed. Depth is how deep the
+// recursive version would have gone; a balance near 0 means some pivots were the minimum or
+// maximum of their range.
+// Usage: java -cp src QuickSortReport [size ...]
+public class QuickSortReport {
+
+    private static final InputDistribution[] INPUTS = {
+            InputDistribution.RANDOM, InputDistribution.SORTED, InputDistribution.REVERSED,
+            InputDistribution.FEW_UNIQUE, InputDistribution.ORGAN_PIPE, InputDistribution.QUICKSORT_KILLER,
+    };
+
+    private static final Reports.Table TABLE = new Reports.Table()
+            .column("input", "%-16s").column("size", "%,12d").column("scheme", "%-12s").column("pivot", "%-16s")
+            .column("ms", "%10.1f").column("depth", "%,8d").column("stack", "%7d").column("partitions", "%,13d")
+            .column("mean", "%8.3f").column("worst", "%8.3f");
+
+    public static void main(String[] args) {
+        // Lomuto on few unique keys is quadratic, so larger sizes take minutes. That is also why
+        // each combination runs once rather than best of Reports.RUNS.
+        int[] sizes = Reports.sizes(args, 100_000);
+
+        TABLE.printHeader();
+        for (int size : sizes) {
+            for (InputDistribution distribution : INPUTS) {
+                int[] input = new InputGenerator(42).generate(distribution, size);
+                for (PartitionScheme scheme : PartitionScheme.values()) {
+                    for (PivotChoice choice : PivotChoice.values()) {
+                        int[] work = input.clone();
+                        SortEngine engine = new SortEngine(work).setPartitionScheme(scheme).setPivotChoice(choice);
+                        long nanos = Reports.timeNanos(scheme + " with " + choice, work,
+                                array -> engine.sort(Algorithm.ITERATIVE_QUICK));
+                        PartitionStats stats = engine.getPartitionStats();
+                        TABLE.printRow(distribution.getDisplayName(), size, scheme.getDisplayName(), choice.getDisplayName(),
+                                nanos / 1e6, stats.getMaxDepth(), stats.getMaxStack(), stats.getPartitions(),
+                                stats.getMeanBalance(), stats.getWorstBalance());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.Arrays;
+
+// Quick sort without recursion. Pending ranges live on an explicit stack of ints; after each
+// partition the larger parts are pushed and the smallest is sorted next, so the stack holds
+// O(log n) ranges whatever the input, where the recursive quickSort goes n deep on sorted data.
+// The partition scheme and pivot choice come from the engine, and every run records its depth
+// and partition balance in the engine's PartitionStats.
+final class QuickSorts {
+
+    private QuickSorts() {
+    }
+
+    static void iterativeQuickSort(SortEngine engine) {
+        PartitionStats stats = engine.getPartitionStats();
+        stats.reset();
+        int n = engine.length();
+        if (n < 2) return;
+        PartitionScheme scheme = engine.getPartitionScheme();
+        PivotChoice choice = engine.getPivotChoice();
+
+        // Each entry is low, high and the depth the range was split off at
+        int[] stack = new int[3 * (2 * (32 - Integer.numberOfLeadingZeros(n)) + 2)];
+        int top = 0;
+        int[] parts = new int[6]; // Bounds of the up to three parts of the last partition
+        engine.allocated(stack.length + parts.length);
+        int low = 0;
+        int high = n - 1;
+        int depth = 0;
+        while (true) {
+            stats.depth(depth, top / 3);
+            if (high - low + 1 > HybridSorts.INSERTION_CUTOFF) {
+                int count = partition(engine, scheme, choice, low, high, parts);
+                // Sort the smallest part next and push the others
+                int smallest = 0;
+                int smallestSize = Integer.MAX_VALUE;
+                int largestSize = 0;
+                for (int p = 0; p < count; p++) {
+                    int size = parts[2 * p + 1] - parts[2 * p] + 1;
+                    if (size < smallestSize) {
+                        smallest = p;
+                        smallestSize = size;
+                    }
+                    largestSize = Math.max(largestSize, size);
+                }
+                stats.partitioned(largestSize, high - low + 1);
+                depth++;
+                if (top + 3 * count > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    engine.allocated(stack.length);
+                }
+                for (int p = 0; p < count; p++) {
+                    if (p != smallest && parts[2 * p] < parts[2 * p + 1]) {
+                        stack[top++] = parts[2 * p];
+                        stack[top++] = parts[2 * p + 1];
+                        stack[top++] = depth;
+                    }
+                }
+                low = parts[2 * smallest];
+                high = parts[2 * smallest + 1];
+                continue;
+            }
+            if (low < high) {
+                engine.insertionSort(low, high);
+            }
+            if (top == 0) return;
+            depth = stack[--top];
+            high = stack[--top];
+            low = stack[--top];
+        }
+    }
+
+    // Depth after which introQuickSort hands a range of n elements to heap sort, as introsort does
+    static int depthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(n));
+    }
+
+    // Ninther pivot and Dutch flag partition of [low, high], stored in parts as partition does.
+    // Keys equal to the pivot are done with, so duplicate-heavy input costs nothing extra, and
+    // the ninther keeps sawtooth and organ pipe input balanced.
+    static int partitionThreeWay(SortEngine engine, int low, int high, int[] parts) {
+        return partition(engine, PartitionScheme.THREE_WAY, PivotChoice.NINTHER, low, high, parts);
+    }
+
+    // Quick sort of [low, high] with partitionThreeWay that switches a range to heap sort once
+    // depthLimit partitions deep and finishes small ranges with insertion sort. Recurses into the
+    // smaller part and loops on the larger one.
+    static void introQuickSort(SortEngine engine, int low, int high, int depthLimit) {
+        int[] parts = new int[4];
+        while (high - low + 1 > HybridSorts.INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                engine.range(low, high);
+                engine.heapSort(low, high);
+                return;
+            }
+            partitionThreeWay(engine, low, high, parts);
+            if (parts[1] - parts[0] < parts[3] - parts[2]) {
+                introQuickSort(engine, parts[0], parts[1], depthLimit);
+                low = parts[2];
+            } else {
+                introQuickSort(engine, parts[2], parts[3], depthLimit);
+                high = parts[1];
+            }
+        }
+        if (low < high) {
+            engine.insertionSort(low, high);
+        }
+    }
+
+    // Partitions [low, high] and stores the inclusive bounds of the parts still to be sorted
+    // in parts; returns how many there are. Empty parts have high < low.
+    private static int partition(SortEngine engine, PartitionScheme scheme, PivotChoice choice,
+                                 int low, int high, int[] parts) {
+        engine.range(low, high);
+        switch (scheme) {
+            case LOMUTO: {
+                engine.swap(choosePivot(engine, choice, low, high), high);
+                int pi = engine.partition(low, high);
+                return setParts(parts, low, pi - 1, pi + 1, high);
+            }
+            case HOARE: {
+                engine.swap(choosePivot(engine, choice, low, high), low);
+                int j = hoare(engine, low, high);
+                return setParts(parts, low, j, j + 1, high);
+            }
+            case THREE_WAY:
+                engine.swap(choosePivot(engine, choice, low, high), low);
+                return threeWay(engine, low, high, parts);
+            default: {
+                // The two pivots come from the lower and upper half of the range
+                int mid = (low + high) >>> 1;
+                engine.swap(choosePivot(engine, choice, low, mid), low);
+                engine.swap(choosePivot(engine, choice, mid + 1, high), high);
+                return dualPivot(engine, low, high, parts);
+            }
+        }
+    }
+
+    private static int setParts(int[] parts, int low1, int high1, int low2, int high2) {
+        parts[0] = low1;
+        parts[1] = high1;
+        parts[2] = low2;
+        parts[3] = high2;
+        return 2;
+    }
+
+    // Hoare's scheme around the pivot at low. Returns j such that [low, j] <= pivot <= [j + 1, high],
+    // both sides non-empty.
+    private static int hoare(SortEngine engine, int low, int high) {
+        int[] array = engine.getArray();
+        int pivot = array[low];
+        int i = low - 1;
+        int j = high + 1;
+        while (true) {
+            do {
+                i++;
+                engine.compared(i, low);
+            } while (array[i] < pivot);
+            do {
+                j--;
+                engine.compared(j, low);
+            } while (array[j] > pivot);
+            if (i >= j) return j;
+            engine.swap(i, j);
+        }
+    }
+
+    // Dijkstra's Dutch national flag partition around the pivot at low
+    private static int threeWay(SortEngine engine, int low, int high, int[] parts) {
+        int[] array = engine.getArray();
+        int pivot = array[low];
+        int lt = low;
+        int gt = high;
+        int i = low + 1;
+        while (i <= gt) {
+            engine.compared(i, lt);
+            if (array[i] < pivot) {
+                engine.swap(lt++, i++);
+            } else if (array[i] > pivot) {
+                engine.swap(i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return setParts(parts, low, lt - 1, gt + 1, high);
+    }
+
+    // Yaroslavskiy's dual-pivot partition around the pivots at low and high
+    private static int dualPivot(SortEngine engine, int low, int high, int[] parts) {
+        int[] array = engine.getArray();
+        engine.compared(low, high);
+        if (array[low] > array[high]) {
+            engine.swap(low, high);
+        }
+        int p = array[low];
+        int q = array[high];
+        int lt = low + 1;
+        int gt = high - 1;
+        int k = lt;
+        while (k <= gt) {
+            engine.compared(k, low);
+            if (array[k] < p) {
+                engine.swap(k, lt++);
+            } else {
+                engine.compared(k, high);
+                if (array[k] > q) {
+                    while (k < gt) {
+                        engine.compared(gt, high);
+                        if (array[gt] <= q) break;
+                        gt--;
+                    }
+                    engine.swap(k, gt--);
+                    engine.compared(k, low);
+                    if (array[k] < p) {
+                        engine.swap(k, lt++);
+                    }
+                }
+            }
+            k++;
+        }
+        lt--;
+        gt++;
+        engine.swap(low, lt);
+        engine.swap(high, gt);
+        parts[0] = low;
+        parts[1] = lt - 1;
+        parts[2] = lt + 1;
+        parts[3] = p == q ? lt : gt - 1; // Between equal pivots every key equals them
+        parts[4] = gt + 1;
+        parts[5] = high;
+        return 3;
+    }
+
+    // Index of the pivot for [low, high]; the range is not modified
+    private static int choosePivot(SortEngine engine, PivotChoice choice, int low, int high) {
+        switch (choice) {
+            case RANDOM:
+                return engine.randomIndex(low, high);
+            case MEDIAN_OF_THREE:
+                return median(engine, low, (low + high) >>> 1, high);
+            default: {
+                int eighth = (high - low) / 8;
+                if (eighth == 0) {
+                    return median(engine, low, (low + high) >>> 1, high);
+                }
+                int mid = (low + high) >>> 1;
+                return median(engine,
+                        median(engine, low, low + eighth, low + 2 * eighth),
+                        median(engine, mid - eighth, mid, mid + eighth),
+                        median(engine, high - 2 * eighth, high - eighth, high));
+            }
+        }
+    }
+
+    // Index of the median of the elements at a, b and c
+    private static int median(SortEngine engine, int a, int b, int c) {
+        int[] array = engine.getArray();
+        engine.compared(a, b);
+        if (array[a] < array[b]) {
+            engine.compared(b, c);
+            if (array[b] < array[c]) return b;
+            engine.compared(a, c);
+            return array[a] < array[c] ? c : a;
+        }
+        engine.compared(a, c);
+        if (array[a] < array[c]) return a;
+        engine.compared(b, c);
+        return array[b] < array[c] ? c : b;
+    }
+}
@@ -0,0 +1,299 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Race mode: the six array sorts of the button row against four input distributions at once,
+// one small panel each. Every panel sorts its own copy of the same seeded input on its own
+// thread (a virtual thread where the JDK has them) and spends its own pacer's budget, so all of
+// them run at the chosen speed side by side. One render clock ticks every pacer and paints all
+// panels in a single pass; the leaderboard lists the panels in the order they finish. A single
+// RunController pauses or stops the whole race.
+public class RaceVisualizer extends JPanel implements ActionListener {
+
+    private static final Algorithm[] ALGORITHMS = {Algorithm.BUBBLE, Algorithm.SELECTION, Algorithm.INSERTION,
+            Algorithm.QUICK, Algorithm.MERGE, Algorithm.HEAP};
+    private static final InputDistribution[] DISTRIBUTIONS = {InputDistribution.RANDOM,
+            InputDistribution.NEARLY_SORTED, InputDistribution.REVERSED, InputDistribution.FEW_UNIQUE};
+    private static final int[] SIZE_CHOICES = {100, 1_000, 10_000};
+    private static final int MAX_VALUE = 1_000;
+    private static final int LANE_WIDTH = 160;
+    private static final int LANE_HEIGHT = 110;
+    private static final int LABEL_HEIGHT = 32; // Name and live counts above each panel
+    private static final int GAP = 10;
+    private static final int FPS = 60;
+    private static final int MAX_SPEED_EXPONENT = 70; // Slider tops out at 10^7 operations per second per panel
+    private static final Color BACKGROUND = new Color(30, 30, 30);
+
+    private final Lane[] lanes = new Lane[ALGORITHMS.length * DISTRIBUTIONS.length];
+    private final JPanel board = new JPanel() {
+        @Override
+        public void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            paintLanes(g);
+        }
+    };
+    private final JTextArea leaderboard = new JTextArea();
+    private final JButton startButton = new JButton("Start Race");
+    private final JButton stopButton = new JButton("Stop");
+    private final JButton pauseButton = new JButton("Pause");
+    private final JButton mainMenu = new JButton("Main Menu");
+    private final JComboBox<String> sizeBox = new JComboBox<>();
+    private JSlider speedSlider;
+    private final JLabel speedLabel = new JLabel();
+    private volatile long opsPerSecond;
+    private ExecutorService executor; // Runs the panels of the current race
+    private RunController controller = new RunController(); // Pauses or stops every panel of the current race
+    private AtomicInteger finished = new AtomicInteger(); // Panels of the current race done so far
+    private final Timer frameTimer = new Timer(1000 / FPS, e -> renderFrame());
+
+    public RaceVisualizer() {
+        setBackground(BACKGROUND);
+        setupGUI();
+        frameTimer.start();
+    }
+
+    private void setupGUI() {
+        setLayout(new BorderLayout());
+
+        board.setBackground(BACKGROUND);
+        board.setPreferredSize(new Dimension(GAP + ALGORITHMS.length * (LANE_WIDTH + GAP),
+                GAP + DISTRIBUTIONS.length * (LABEL_HEIGHT + LANE_HEIGHT + GAP)));
+
+        leaderboard.setEditable(false);
+        leaderboard.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        leaderboard.setBackground(new Color(40, 40, 40));
+        leaderboard.setForeground(Color.WHITE);
+        JScrollPane leaderboardPane = new JScrollPane(leaderboard);
+        leaderboardPane.setPreferredSize(new Dimension(330, 0));
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setLayout(new GridLayout(1, 7, 10, 10));
+        buttonPanel.setBackground(new Color(40, 40, 40));
+
+        // Logarithmic speed, as in the array view: slider value v means 10^(v / 10) operations per second
+        speedSlider = new JSlider(0, MAX_SPEED_EXPONENT, 30);
+        speedSlider.addChangeListener(e -> updateSpeed());
+        updateSpeed();
+        for (int size : SIZE_CHOICES) {
+            sizeBox.addItem(String.format("%,d elements", size));
+        }
+        startButton.addActionListener(this);
+        stopButton.addActionListener(this);
+        pauseButton.addActionListener(this);
+        mainMenu.addActionListener(this);
+
+        styleButton(startButton);
+        styleButton(stopButton);
+        styleButton(pauseButton);
+        styleButton(mainMenu);
+        speedSlider.setBackground(new Color(50, 50, 50));
+        speedSlider.setForeground(Color.WHITE);
+        speedLabel.setForeground(Color.WHITE);
+        speedLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        buttonPanel.add(startButton);
+        buttonPanel.add(stopButton);
+        buttonPanel.add(pauseButton);
+        buttonPanel.add(sizeBox);
+        buttonPanel.add(speedSlider);
+        buttonPanel.add(speedLabel);
+        buttonPanel.add(mainMenu);
+
+        add(board, BorderLayout.CENTER);
+        add(leaderboardPane, BorderLayout.EAST);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void styleButton(JButton button) {
+        button.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        button.setForeground(Color.WHITE);
+        button.setBackground(new Color(50, 50, 50));
+        button.setFocusPainted(false);
+        button.setPreferredSize(new Dimension(140, 40));
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == startButton) {
+            startRace();
+        } else if (e.getSource() == stopButton) {
+            stopRace();
+        } else if (e.getSource() == pauseButton) {
+            if (controller.isPaused()) {
+                controller.resume();
+            } else {
+                controller.pause();
+            }
+            pauseButton.setText(controller.isPaused() ? "Resume" : "Pause");
+        } else if (e.getSource() == mainMenu) {
+            frameTimer.stop();
+            stopRace();
+            Window window = SwingUtilities.getWindowAncestor(this);
+            window.dispose();
+            new SplashScreen();
+        }
+    }
+
+    private void updateSpeed() {
+        opsPerSecond = Math.round(Math.pow(10, speedSlider.getValue() / 10.0));
+        for (Lane lane : lanes) {
+            if (lane != null) {
+                lane.pacer.setOpsPerSecond(opsPerSecond);
+            }
+        }
+        speedLabel.setText(String.format("%,d ops/s each", opsPerSecond));
+    }
+
+    // Generates one input per distribution and starts every panel on a copy of it
+    private void startRace() {
+        stopRace();
+        finished = new AtomicInteger();
+        controller = new RunController();
+        pauseButton.setText("Pause");
+        long seed = ThreadLocalRandom.current().nextLong();
+        int size = SIZE_CHOICES[sizeBox.getSelectedIndex()];
+        InputGenerator generator = new InputGenerator(seed).setMaxValue(MAX_VALUE);
+        for (int d = 0; d < DISTRIBUTIONS.length; d++) {
+            int[] input = generator.generate(DISTRIBUTIONS[d], size);
+            for (int a = 0; a < ALGORITHMS.length; a++) {
+                lanes[d * ALGORITHMS.length + a] = new Lane(ALGORITHMS[a], DISTRIBUTIONS[d], input);
+            }
+        }
+        leaderboard.setText(String.format("Seed %d, %,d elements, %s threads%n%n", seed, size,
+                VirtualThreads.isAvailable() ? "virtual" : "platform"));
+        executor = VirtualThreads.newPerTaskExecutor("race");
+        for (Lane lane : lanes) {
+            executor.execute(lane::run);
+        }
+        executor.shutdown(); // No more panels; the threads end as their sorts do
+        board.repaint();
+    }
+
+    // Cancels every panel still sorting; each one gives up at its next operation
+    private void stopRace() {
+        if (executor != null) {
+            controller.cancel();
+            for (Lane lane : lanes) {
+                lane.pacer.release();
+            }
+            executor = null;
+        }
+    }
+
+    // One tick of the shared render clock: grant every panel its operations for this frame,
+    // bring the back buffers up to date and paint the whole board once
+    private void renderFrame() {
+        if (lanes[0] == null) return;
+        for (Lane lane : lanes) {
+            lane.pacer.tick();
+            lane.renderer.flush();
+            lane.counts = lane.counters.snapshot();
+        }
+        board.repaint();
+    }
+
+    private void paintLanes(Graphics g) {
+        if (lanes[0] == null) {
+            g.setColor(Color.WHITE);
+            g.drawString("Press Start Race to sort every input with every algorithm at once", GAP, GAP + 20);
+            return;
+        }
+        for (int k = 0; k < lanes.length; k++) {
+            Lane lane = lanes[k];
+            int x = GAP + (k % ALGORITHMS.length) * (LANE_WIDTH + GAP);
+            int y = GAP + (k / ALGORITHMS.length) * (LABEL_HEIGHT + LANE_HEIGHT + GAP);
+            SortCounters.Snapshot counts = lane.counts;
+            g.setColor(Color.WHITE);
+            g.drawString(lane.algorithm.getDisplayName() + " / " + lane.distribution.getDisplayName(), x, y + 12);
+            String status = String.format("%,d ops", counts.comparisons + counts.swaps + counts.writes);
+            if (lane.place > 0) {
+                status = "#" + lane.place + "  " + status;
+            }
+            g.drawString(status, x, y + 26);
+
+            Graphics panel = g.create(x, y + LABEL_HEIGHT, LANE_WIDTH, LANE_HEIGHT);
+            try {
+                lane.renderer.paint(panel);
+            } finally {
+                panel.dispose();
+            }
+            if (lane.place > 0) {
+                g.setColor(Color.GREEN);
+                g.drawRect(x - 1, y + LABEL_HEIGHT - 1, LANE_WIDTH + 1, LANE_HEIGHT + 1);
+            }
+        }
+    }
+
+    // One algorithm on one input, with its own array, back buffer, pacer and counters
+    private final class Lane implements SortListener {
+        final Algorithm algorithm;
+        final InputDistribution distribution;
+        final int[] array;
+        final BarRenderer renderer;
+        final FramePacer pacer = new FramePacer(FPS, opsPerSecond);
+        final SortCounters counters = new SortCounters();
+        final AtomicInteger order = finished; // Hands out places within this panel's race
+        final RunController race = controller;
+        volatile SortCounters.Snapshot counts = counters.snapshot(); // Refreshed by the render clock
+        volatile int place; // Finish position, 0 while sorting or stopped
+
+        Lane(Algorithm algorithm, InputDistribution distribution, int[] input) {
+            this.algorithm = algorithm;
+            this.distribution = distribution;
+            this.array = input.clone();
+            this.renderer = new BarRenderer(array, MAX_VALUE, LANE_WIDTH, LANE_HEIGHT, BACKGROUND);
+        }
+
+        void run() {
+            try {
+                new SortEngine(array, counters.counting(this)).sort(algorithm);
+            } catch (CancellationException ex) {
+                return; // Stopped before finishing, so no place
+            } finally {
+                counters.finish();
+            }
+            place = order.incrementAndGet();
+            SortCounters.Snapshot result = counters.snapshot();
+            String line = String.format("%2d. %-14s %-13s %,11d ops %7.2f s%n", place, algorithm.getDisplayName(),
+                    distribution.getDisplayName(), result.comparisons + result.swaps + result.writes, result.wallNanos / 1e9);
+            boolean last = place == lanes.length;
+            SwingUtilities.invokeLater(() -> {
+                if (order != finished) return; // A newer race has taken over the leaderboard
+                leaderboard.append(line);
+                if (last) {
+                    leaderboard.append(String.format("%nAll %d panels finished%n", lanes.length));
+                }
+            });
+        }
+
+        @Override
+        public void onSwap(int i, int j) {
+            if (i != j) {
+                renderer.changed(i, array[j], array[i]);
+                renderer.changed(j, array[i], array[j]);
+            }
+            step();
+        }
+
+        @Override
+        public void onWrite(int index, int oldValue, int newValue) {
+            renderer.changed(index, oldValue, newValue);
+            step();
+        }
+
+        private void step() {
+            race.checkpoint();
+            try {
+                pacer.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Race thread interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.Arrays;
+
+// Non-comparison sorts for the engine's int keys. Signed ints are ordered by flipping the sign
+// bit, so a key's digits read as unsigned. Histograms and scratch space come from the engine's
+// reusable buffers, allocated once up front rather than per pass or per bucket.
+//
+// Each distribution pass is visible: elements are written back into the array bucket by bucket
+// (LSD, counting) or swapped into their buckets in place (MSD), and each bucket is announced as a
+// range as it is filled.
+final class RadixSorts {
+
+    // Counting sort falls back to LSD radix sort above this many distinct possible values, or
+    // above COUNTING_FACTOR per element once that exceeds one radix's worth of counts: a wider
+    // histogram would cost more to allocate and sweep than the LSD passes cost in total
+    static final int COUNTING_LIMIT = 1 << 24;
+    static final int COUNTING_FACTOR = 4;
+    // MSD buckets at or below this size are finished with insertion sort, and buckets smaller
+    // than a quarter of the radix with QuickSorts.introQuickSort, where a histogram pass would
+    // cost more. Its three-way partition and depth limit keep runs of equal keys n log n.
+    static final int MSD_INSERTION_CUTOFF = 32;
+
+    private RadixSorts() {
+    }
+
+    private static int key(int value) {
+        return value ^ Integer.MIN_VALUE;
+    }
+
+    static void countingSort(SortEngine engine) {
+        int[] array = engine.getArray();
+        int n = array.length;
+        if (n < 2) return;
+        int min = array[0];
+        int max = array[0];
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, array[i]);
+            max = Math.max(max, array[i]);
+        }
+        long range = (long) max - min + 1;
+        if (range > COUNTING_LIMIT || range > Math.max((long) COUNTING_FACTOR * n, 1 << engine.getRadixBits())) {
+            lsdRadixSort(engine);
+            return;
+        }
+        int[] counts = engine.counts((int) range);
+        for (int value : array) {
+            counts[value - min]++;
+        }
+        int k = 0;
+        for (int v = 0; v < range; v++) {
+            int count = counts[v];
+            if (count == 0) continue;
+            engine.range(k, k + count - 1);
+            for (int c = 0; c < count; c++) {
+                engine.write(k++, v + min);
+            }
+        }
+    }
+
+    // One stable distribution pass per digit, least significant first. Passes where every key
+    // has the same digit are skipped, which makes small value ranges cost a single pass or two.
+    static void lsdRadixSort(SortEngine engine) {
+        int[] array = engine.getArray();
+        int n = array.length;
+        if (n < 2) return;
+        int bits = engine.getRadixBits();
+        int radix = 1 << bits;
+        int[] scratch = engine.scratch(n);
+        int[] counts = engine.counts(radix);
+        for (int shift = 0; shift < 32; shift += bits) {
+            int mask = shift + bits >= 32 ? -1 >>> shift : radix - 1;
+            if (shift > 0) {
+                Arrays.fill(counts, 0, radix, 0);
+            }
+            for (int i = 0; i < n; i++) {
+                counts[(key(array[i]) >>> shift) & mask]++;
+            }
+            if (counts[(key(array[0]) >>> shift) & mask] == n) {
+                continue; // Every key shares this digit
+            }
+            // Turn counts into bucket start positions
+            int start = 0;
+            for (int b = 0; b < radix; b++) {
+                int count = counts[b];
+                counts[b] = start;
+                start += count;
+            }
+            System.arraycopy(array, 0, scratch, 0, n);
+            SortListener listener = engine.getListener();
+            for (int i = 0; i < n; i++) {
+                listener.onScratchWrite(i, scratch[i]); // The copy the pass distributes from
+            }
+            for (int b = 0, next = 0; b < radix; b++) {
+                int end = b + 1 < radix ? counts[b + 1] : n;
+                if (end > next) {
+                    engine.range(next, end - 1);
+                }
+                next = end;
+            }
+            for (int i = 0; i < n; i++) {
+                int value = scratch[i];
+                engine.write(counts[(key(value) >>> shift) & mask]++, value);
+            }
+        }
+    }
+
+    // In-place American flag sort: histogram the leading digit, permute every element into its
+    // bucket with swaps, then recurse into each bucket on the next digit. Each recursion level
+    // owns one slice of the counts buffer, so deeper levels never disturb a parent's buckets.
+    static void msdRadixSort(SortEngine engine) {
+        int n = engine.length();
+        if (n < 2) return;
+        int bits = engine.getRadixBits();
+        int levels = (32 + bits - 1) / bits;
+        int[] counts = engine.counts(levels * 2 * (1 << bits));
+        americanFlag(engine, counts, 0, n, 0, bits);
+    }
+
+    private static void americanFlag(SortEngine engine, int[] counts, int low, int high, int level, int bits) {
+        if (high - low <= MSD_INSERTION_CUTOFF) {
+            engine.insertionSort(low, high - 1);
+            return;
+        }
+        if (high - low < (1 << bits) / 4) {
+            QuickSorts.introQuickSort(engine, low, high - 1, QuickSorts.depthLimit(high - low));
+            return;
+        }
+        int[] array = engine.getArray();
+        int consumed = bits * level;
+        int shift = Math.max(0, 32 - consumed - bits);
+        int width = 32 - consumed - shift;
+        int radix = 1 << width;
+        int mask = radix - 1;
+        int base = level * 2 * (1 << bits);
+        int ends = base; // counts, then bucket ends
+        int next = base + (1 << bits); // next free slot of each bucket
+
+        Arrays.fill(counts, base, base + 2 * (1 << bits), 0);
+        for (int i = low; i < high; i++) {
+            counts[ends + ((key(array[i]) >>> shift) & mask)]++;
+        }
+        boolean lastLevel = shift == 0;
+        if (counts[ends + ((key(array[low]) >>> shift) & mask)] == high - low) {
+            // Every key shares this digit: nothing to permute
+            if (!lastLevel) {
+                americanFlag(engine, counts, low, high, level + 1, bits);
+            }
+            return;
+        }
+        int start = low;
+        for (int b = 0; b < radix; b++) {
+            counts[next + b] = start;
+            start += counts[ends + b];
+            counts[ends + b] = start;
+        }
+        for (int b = 0; b < radix; b++) {
+            int end = counts[ends + b];
+            if (counts[next + b] < end) {
+                engine.range(counts[next + b], end - 1);
+            }
+            while (counts[next + b] < end) {
+                int slot = counts[next + b];
+                int digit = (key(array[slot]) >>> shift) & mask;
+                if (digit == b) {
+                    counts[next + b]++;
+                } else {
+                    engine.swap(slot, counts[next + digit]++);
+                }
+            }
+        }
+        if (lastLevel) return;
+        int from = low;
+        for (int b = 0; b < radix; b++) {
+            int to = counts[ends + b];
+            if (to - from > 1) {
+                americanFlag(engine, counts, from, to, level + 1, bits);
+            }
+            from = to;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Shared parts of the headless reports: sizes from the command line, the best-of-RUNS timing
+// loop and the fixed-width tables they print.
+final class Reports {
+
+    static final int RUNS = 5; // Best of RUNS, after one warm-up run
+
+    private Reports() {
+    }
+
+    // The sizes given as arguments, or defaults when there are none
+    static int[] sizes(String[] args, int... defaults) {
+        return args.length == 0 ? defaults : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+    }
+
+    // Best wall time in nanoseconds of sort on a fresh copy of input, checking every result is in order
+    static long bestNanos(String name, int[] input, Consumer<int[]> sort) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run <= RUNS; run++) {
+            long elapsed = timeNanos(name, input.clone(), sort);
+            if (run > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    // Wall time in nanoseconds of a single sort of work, checking the result is in order
+    static long timeNanos(String name, int[] work, Consumer<int[]> sort) {
+        long start = System.nanoTime();
+        sort.accept(work);
+        long elapsed = System.nanoTime() - start;
+        if (!IntArrays.isSorted(work)) {
+            throw new IllegalStateException(name + " left the array unsorted");
+        }
+        return elapsed;
+    }
+
+    // Columns separated by one space. Each column has a printf format for its values, such as
+    // "%-22s" or "%8.2fx"; the header is padded to the same width and alignment.
+    static final class Table {
+
+        private static final Pattern FORMAT = Pattern.compile("%(-?)[,0]*(\\d+)(?:\\.\\d+)?[a-z](.*)");
+
+        private final List<String> headers = new ArrayList<>();
+        private final StringBuilder headerFormat = new StringBuilder();
+        private final StringBuilder rowFormat = new StringBuilder();
+
+        Table column(String header, String format) {
+            Matcher matcher = FORMAT.matcher(format);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Unsupported column format " + format);
+            }
+            int width = Integer.parseInt(matcher.group(2)) + matcher.group(3).replace("%%", "%").length();
+            String separator = headers.isEmpty() ? "" : " ";
+            headers.add(header);
+            headerFormat.append(separator).append('%').append(matcher.group(1)).append(width).append('s');
+            rowFormat.append(separator).append(format);
+            return this;
+        }
+
+        void printHeader() {
+            System.out.printf(headerFormat + "%n", headers.toArray());
+        }
+
+        void printRow(Object... values) {
+            System.out.printf(rowFormat + "%n", values);
+        }
+    }
+}
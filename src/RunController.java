@@ -0,0 +1,111 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Pause, single step and cancellation for a sort run. The sort threads call checkpoint() before
+// every operation they show: while the run is neither paused nor cancelled that is two volatile
+// reads, while paused the thread blocks on a Condition without using any CPU, and once the run is
+// cancelled it throws CancellationException so the sort unwinds and its thread is released.
+// One controller may serve several threads, as the parallel sorts and race mode need.
+class RunController {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile boolean paused;
+    private volatile boolean cancelled;
+    private long steps; // Guarded by lock: operations still allowed through while paused
+
+    boolean isPaused() {
+        return paused;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void pause() {
+        lock.lock();
+        try {
+            paused = true;
+            steps = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void resume() {
+        lock.lock();
+        try {
+            paused = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lets that many more operations through while paused
+    void step(long operations) {
+        lock.lock();
+        try {
+            if (paused) {
+                steps += operations;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Makes every waiting and later checkpoint throw; there is no way back
+    void cancel() {
+        lock.lock();
+        try {
+            cancelled = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called by a sort thread before each operation
+    void checkpoint() {
+        if (!paused && !cancelled) return;
+        lock.lock();
+        try {
+            while (true) {
+                if (cancelled) {
+                    throw new CancellationException("Run cancelled");
+                }
+                if (!paused) return;
+                if (steps > 0) {
+                    steps--;
+                    return;
+                }
+                changed.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Run interrupted");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits millis milliseconds, returning early if the run is cancelled, then checkpoints
+    void sleep(long millis) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(millis);
+        lock.lock();
+        try {
+            while (!cancelled && remaining > 0) {
+                remaining = changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Run interrupted");
+        } finally {
+            lock.unlock();
+        }
+        checkpoint();
+    }
+}
@@ -0,0 +1,245 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Work done by one sort run: comparisons, swaps, writes, auxiliary memory allocated and CPU time.
+// Each thread that reports an operation gets its own slot of plain long counters, so counting
+// costs an increment and a release store, with no contention even in the parallel sorts.
+// snapshot() sums the slots; the visualizers call it once per frame, and the release/acquire
+// pair on each slot's sequence makes every count up to that point visible to the reader.
+public class SortCounters {
+
+    public static final String CSV_HEADER = "algorithm,size,distribution,seed,comparisons,swaps,writes,aux_bytes,cpu_ms,wall_ms";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isThreadCpuTimeSupported();
+    private static final int CPU_SAMPLE_MASK = (1 << 12) - 1; // A thread reads its CPU time every 4096 operations
+
+    private final ThreadLocal<Slot> local = ThreadLocal.withInitial(this::newSlot);
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos; // 0 while the run is going
+
+    // One thread's counters. Only that thread writes the counts; sequence is bumped after each
+    // operation with release semantics so a reader that acquires it sees the counts before it.
+    private static final class Slot {
+        private static final VarHandle SEQUENCE;
+
+        static {
+            try {
+                SEQUENCE = MethodHandles.lookup().findVarHandle(Slot.class, "sequence", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long startCpu = CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+        long comparisons;
+        long swaps;
+        long writes;
+        long auxBytes;
+        private long sequence; // Operations so far, also accessed through SEQUENCE
+        volatile long cpuNanos; // Last CPU time read for this thread, kept once the thread is gone
+
+        void publish() {
+            long next = sequence + 1;
+            if (CPU_TIME && (next & CPU_SAMPLE_MASK) == 0) {
+                // Pool threads may be gone by the time the run finishes, so they sample their own
+                cpuNanos = THREADS.getCurrentThreadCpuTime() - startCpu;
+            }
+            SEQUENCE.setRelease(this, next);
+        }
+
+        void acquire() {
+            SEQUENCE.getAcquire(this);
+        }
+    }
+
+    private Slot newSlot() {
+        Slot slot = new Slot();
+        slots.add(slot);
+        return slot;
+    }
+
+    public void compared() {
+        Slot slot = local.get();
+        slot.comparisons++;
+        slot.publish();
+    }
+
+    public void swapped() {
+        Slot slot = local.get();
+        slot.swaps++;
+        slot.publish();
+    }
+
+    public void written() {
+        Slot slot = local.get();
+        slot.writes++;
+        slot.publish();
+    }
+
+    public void allocated(long bytes) {
+        Slot slot = local.get();
+        slot.auxBytes += bytes;
+        slot.publish();
+    }
+
+    // Stops the wall clock and takes the final CPU times; call on the thread that ran the sort
+    public void finish() {
+        local.get(); // The sorting thread counts towards CPU time even if it only forked tasks
+        readCpuTimes();
+        endNanos = System.nanoTime();
+    }
+
+    // CPU time is read while the run is going; afterwards the threads may go on to other work
+    private void readCpuTimes() {
+        if (!CPU_TIME || endNanos != 0) return;
+        for (Slot slot : slots) {
+            long cpu = THREADS.getThreadCpuTime(slot.threadId);
+            if (cpu >= 0) {
+                slot.cpuNanos = cpu - slot.startCpu;
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        readCpuTimes();
+        long comparisons = 0;
+        long swaps = 0;
+        long writes = 0;
+        long auxBytes = 0;
+        long cpuNanos = 0;
+        for (Slot slot : slots) {
+            slot.acquire();
+            comparisons += slot.comparisons;
+            swaps += slot.swaps;
+            writes += slot.writes;
+            auxBytes += slot.auxBytes;
+            cpuNanos += slot.cpuNanos;
+        }
+        long wallNanos = (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+        return new Snapshot(comparisons, swaps, writes, auxBytes, cpuNanos, wallNanos);
+    }
+
+    // Totals of a run at one point in time
+    public static final class Snapshot {
+        public final long comparisons;
+        public final long swaps;
+        public final long writes;
+        public final long auxBytes;
+        public final long cpuNanos;
+        public final long wallNanos;
+
+        Snapshot(long comparisons, long swaps, long writes, long auxBytes, long cpuNanos, long wallNanos) {
+            this.comparisons = comparisons;
+            this.swaps = swaps;
+            this.writes = writes;
+            this.auxBytes = auxBytes;
+            this.cpuNanos = cpuNanos;
+            this.wallNanos = wallNanos;
+        }
+
+        // Row matching CSV_HEADER
+        public String toCsv(String algorithm, int size, String distribution, long seed) {
+            return String.format(Locale.ROOT, "%s,%d,%s,%d,%d,%d,%d,%d,%.3f,%.3f", algorithm, size, distribution, seed,
+                    comparisons, swaps, writes, auxBytes, cpuNanos / 1e6, wallNanos / 1e6);
+        }
+    }
+
+    // Listeners that count each event and pass it on to delegate
+    public SortListener counting(SortListener delegate) {
+        return new SortListener() {
+            @Override
+            public void onCompare(int i, int j) {
+                compared();
+                delegate.onCompare(i, j);
+            }
+
+            @Override
+            public void onSwap(int i, int j) {
+                swapped();
+                delegate.onSwap(i, j);
+            }
+
+            @Override
+            public void onWrite(int index, int oldValue, int newValue) {
+                written();
+                delegate.onWrite(index, oldValue, newValue);
+            }
+
+            // Stores into auxiliary memory count as writes too
+            @Override
+            public void onScratchWrite(int index, int value) {
+                written();
+                delegate.onScratchWrite(index, value);
+            }
+
+            @Override
+            public void onRange(int from, int to) {
+                delegate.onRange(from, to);
+            }
+
+            @Override
+            public void onStage() {
+                delegate.onStage();
+            }
+
+            @Override
+            public void onAllocate(long bytes) {
+                allocated(bytes);
+                delegate.onAllocate(bytes);
+            }
+        };
+    }
+
+    // Relinking a node counts as a write
+    public ListSortListener counting(ListSortListener delegate) {
+        return new ListSortListener() {
+            @Override
+            public void onCompare(ListNode a, ListNode b) {
+                compared();
+                delegate.onCompare(a, b);
+            }
+
+            @Override
+            public void onSwap(ListNode a, ListNode b) {
+                swapped();
+                delegate.onSwap(a, b);
+            }
+
+            @Override
+            public void onRelink(ListNode node, ListNode next) {
+                written();
+                delegate.onRelink(node, next);
+            }
+        };
+    }
+
+    public ArenaListSortListener counting(ArenaListSortListener delegate) {
+        return new ArenaListSortListener() {
+            @Override
+            public void onCompare(int a, int b) {
+                compared();
+                delegate.onCompare(a, b);
+            }
+
+            @Override
+            public void onSwap(int a, int b) {
+                swapped();
+                delegate.onSwap(a, b);
+            }
+
+            @Override
+            public void onRelink(int node, int next) {
+                written();
+                delegate.onRelink(node, next);
+            }
+        };
+    }
+}
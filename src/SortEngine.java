@@ -0,0 +1,329 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Swing-free home of the sorting algorithms. Each algorithm works directly on the int[] it was
+// given and reports what it does to a SortListener, so the same code drives the visualizer,
+// batch jobs and benchmarks. With SortListener.NONE the sorts run at native speed.
+public class SortEngine {
+
+    private final int[] array;
+    private final SortListener listener;
+    private int parallelism = Runtime.getRuntime().availableProcessors(); // Workers for the parallel sorts
+    private int radixBits = 8; // Digit width of the radix sorts
+    private PartitionScheme partitionScheme = PartitionScheme.HOARE; // Used by the iterative quick sort
+    private PivotChoice pivotChoice = PivotChoice.MEDIAN_OF_THREE;
+    private final PartitionStats partitionStats = new PartitionStats();
+    private SplittableRandom random = new SplittableRandom(42); // Random pivots, so a seed replays a run exactly
+
+    // Work buffers kept between runs, so algorithms that need them never allocate in their hot loops
+    private int[] scratch;
+    private int[] counts;
+
+    public SortEngine(int[] array) {
+        this(array, SortListener.NONE);
+    }
+
+    public SortEngine(int[] array, SortListener listener) {
+        this.array = array;
+        this.listener = listener;
+    }
+
+    public int[] getArray() {
+        return array;
+    }
+
+    public int length() {
+        return array.length;
+    }
+
+    public SortListener getListener() {
+        return listener;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public SortEngine setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public int getRadixBits() {
+        return radixBits;
+    }
+
+    public SortEngine setRadixBits(int radixBits) {
+        if (radixBits < 1 || radixBits > 16) {
+            throw new IllegalArgumentException("Radix must be between 1 and 16 bits: " + radixBits);
+        }
+        this.radixBits = radixBits;
+        return this;
+    }
+
+    public PartitionScheme getPartitionScheme() {
+        return partitionScheme;
+    }
+
+    public SortEngine setPartitionScheme(PartitionScheme partitionScheme) {
+        this.partitionScheme = partitionScheme;
+        return this;
+    }
+
+    public PivotChoice getPivotChoice() {
+        return pivotChoice;
+    }
+
+    public SortEngine setPivotChoice(PivotChoice pivotChoice) {
+        this.pivotChoice = pivotChoice;
+        return this;
+    }
+
+    // Seeds the random pivot choice, normally with the seed the input was generated from
+    public SortEngine setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+        return this;
+    }
+
+    // Depth and balance of the last iterative quick sort run
+    public PartitionStats getPartitionStats() {
+        return partitionStats;
+    }
+
+    // A buffer of at least size ints with undefined contents
+    int[] scratch(int size) {
+        if (scratch == null || scratch.length < size) {
+            scratch = new int[size];
+            allocated(size);
+        }
+        return scratch;
+    }
+
+    // A buffer of at least size ints whose first size entries are zero
+    int[] counts(int size) {
+        if (counts == null || counts.length < size) {
+            counts = new int[size];
+            allocated(size);
+        } else {
+            Arrays.fill(counts, 0, size, 0);
+        }
+        return counts;
+    }
+
+    // Uniformly chosen index in [low, high]; only the sequential sorts may draw from it
+    int randomIndex(int low, int high) {
+        return random.nextInt(low, high + 1);
+    }
+
+    public void sort(Algorithm algorithm) {
+        algorithm.sort(this);
+    }
+
+    // Operations shared by all algorithms, each one reported to the listener
+    void swap(int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+        listener.onSwap(i, j);
+    }
+
+    void write(int index, int value) {
+        int oldValue = array[index];
+        array[index] = value;
+        listener.onWrite(index, oldValue, value);
+    }
+
+    // Stores value at index of the buffer the last scratch(size) call returned
+    void scratchWrite(int index, int value) {
+        scratch[index] = value;
+        listener.onScratchWrite(index, value);
+    }
+
+    void compared(int i, int j) {
+        listener.onCompare(i, j);
+    }
+
+    void range(int from, int to) {
+        listener.onRange(from, to);
+    }
+
+    void stage() {
+        listener.onStage();
+    }
+
+    void allocated(int ints) {
+        listener.onAllocate((long) ints * Integer.BYTES);
+    }
+
+    // Sorting Algorithms
+    public void bubbleSort() {
+        int n = array.length;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = 0; j < n - i - 1; j++) {
+                compared(j, j + 1);
+                if (array[j] > array[j + 1]) {
+                    swap(j, j + 1);
+                }
+            }
+        }
+    }
+
+    public void selectionSort() {
+        int n = array.length;
+        for (int i = 0; i < n - 1; i++) {
+            int minIdx = i;
+            for (int j = i + 1; j < n; j++) {
+                compared(j, minIdx);
+                if (array[j] < array[minIdx]) {
+                    minIdx = j;
+                }
+            }
+            swap(minIdx, i);
+        }
+    }
+
+    public void insertionSort() {
+        insertionSort(0, array.length - 1);
+    }
+
+    // Insertion sort of [low, high], also used as the small-range cutoff of other algorithms
+    void insertionSort(int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = array[i];
+            int j = i - 1;
+            // The key logically sits in the hole at j + 1 while it is being compared
+            while (j >= low) {
+                compared(j, j + 1);
+                if (key >= array[j]) {
+                    break;
+                }
+                write(j + 1, array[j]);
+                j--;
+            }
+            write(j + 1, key);
+        }
+    }
+
+    public void quickSort(int low, int high) {
+        if (low < high) {
+            int pi = partition(low, high);
+            quickSort(low, pi - 1);
+            quickSort(pi + 1, high);
+        }
+    }
+
+    int partition(int low, int high) {
+        range(low, high);
+        int pivot = array[high];
+        int i = (low - 1);
+        for (int j = low; j < high; j++) {
+            compared(j, high);
+            if (array[j] < pivot) {
+                i++;
+                swap(i, j);
+            }
+        }
+        swap(i + 1, high);
+        return i + 1;
+    }
+
+    // Moves the median of array[low], array[mid] and array[high] to high, where partition takes its pivot
+    void medianOfThree(int low, int high) {
+        int mid = (low + high) >>> 1;
+        compared(mid, low);
+        if (array[mid] < array[low]) swap(mid, low);
+        compared(high, low);
+        if (array[high] < array[low]) swap(high, low);
+        compared(mid, high);
+        if (array[mid] < array[high]) swap(mid, high);
+    }
+
+    public void mergeSort(int left, int right) {
+        if (left < right) {
+            int mid = (left + right) / 2;
+            mergeSort(left, mid);
+            mergeSort(mid + 1, right);
+            merge(left, mid, right);
+        }
+    }
+
+    void merge(int left, int mid, int right) {
+        range(left, right);
+        int n1 = mid - left + 1;
+        int n2 = right - mid;
+        int[] leftArray = new int[n1];
+        int[] rightArray = new int[n2];
+        allocated(n1 + n2);
+        System.arraycopy(array, left, leftArray, 0, n1);
+        System.arraycopy(array, mid + 1, rightArray, 0, n2);
+        for (int t = left; t <= right; t++) {
+            listener.onScratchWrite(t, array[t]); // The copies hold [left, right] as it was
+        }
+
+        int i = 0, j = 0, k = left;
+        while (i < n1 && j < n2) {
+            compared(left + i, mid + 1 + j);
+            if (leftArray[i] <= rightArray[j]) {
+                write(k, leftArray[i]);
+                i++;
+            } else {
+                write(k, rightArray[j]);
+                j++;
+            }
+            k++;
+        }
+
+        while (i < n1) {
+            write(k, leftArray[i]);
+            i++;
+            k++;
+        }
+
+        while (j < n2) {
+            write(k, rightArray[j]);
+            j++;
+            k++;
+        }
+    }
+
+    public void heapSort() {
+        heapSort(0, array.length - 1);
+    }
+
+    // Heap sort of [low, high], also the fallback of introsort once its partitions go bad
+    void heapSort(int low, int high) {
+        int n = high - low + 1;
+        range(low, high);
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            maxHeapify(low, i, n);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(low, low + i);
+            range(low, low + i - 1); // The heap that remains
+            maxHeapify(low, 0, i);
+        }
+    }
+
+    // Sifts node i down the heap of n elements that starts at index low
+    void maxHeapify(int low, int i, int n) {
+        int left = 2 * i + 1;
+        int right = 2 * i + 2;
+        int largest = i;
+        if (left < n) {
+            compared(low + left, low + largest);
+            if (array[low + left] > array[low + largest]) {
+                largest = left;
+            }
+        }
+        if (right < n) {
+            compared(low + right, low + largest);
+            if (array[low + right] > array[low + largest]) {
+                largest = right;
+            }
+        }
+        if (largest != i) {
+            swap(low + i, low + largest);
+            maxHeapify(low, largest, n);
+        }
+    }
+}
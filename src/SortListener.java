@@ -0,0 +1,27 @@
+// Receives the operations a SortEngine performs on its array. Every callback has an empty
+// default so a sink only overrides what it cares about, and NONE costs next to nothing.
+// Parallel algorithms call a listener from several threads at once.
+public interface SortListener {
+    SortListener NONE = new SortListener() { };
+
+    // Elements at i and j were compared
+    default void onCompare(int i, int j) { }
+
+    // Elements at i and j were exchanged
+    default void onSwap(int i, int j) { }
+
+    // newValue replaced oldValue at index (merges, shifts, distribution passes)
+    default void onWrite(int index, int oldValue, int newValue) { }
+
+    // The algorithm is now working on the inclusive range [from, to]
+    default void onRange(int from, int to) { }
+
+    // value was stored in the algorithm's auxiliary buffer, in the slot that mirrors array[index]
+    default void onScratchWrite(int index, int value) { }
+
+    // Everything reported since the last stage was one data-parallel step (sorting networks)
+    default void onStage() { }
+
+    // The algorithm allocated bytes of auxiliary memory (merge buffers, histograms, stacks)
+    default void onAllocate(long bytes) { }
+}
@@ -2,15 +2,37 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Random;
-
-public class SortingVisualizer extends JPanel implements ActionListener {
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.IntStream;
+
+public class SortingVisualizer extends JPanel implements ActionListener, SortListener {
 
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
     private static final int BAR_WIDTH = 4;
-    private static final int ARRAY_SIZE = WIDTH / BAR_WIDTH;
+    private static final int ARRAY_SIZE = WIDTH / BAR_WIDTH; // Default size, one 4 pixel bar per element
+    // Larger arrays are drawn as one min/max/mean envelope per pixel column
+    private static final int[] SIZE_CHOICES = {ARRAY_SIZE, 1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+    private static final int[] RANGE_CHOICES = {HEIGHT, 65_536, 1_000_000, Integer.MAX_VALUE};
+    private static final int SCRATCH_HEIGHT = 80; // Strip under the bars showing the sort's auxiliary buffer
+    private static final int SCRATCH_VIEW_LIMIT = 1_000_000; // Larger arrays get an empty strip
+    private static final Color SCRATCH_BACKGROUND = new Color(20, 20, 20);
+    private static final Color HEAP_LEVEL_COLOR = new Color(70, 70, 110);
+    private static final Color HEAP_LEVEL_ALTERNATE_COLOR = new Color(100, 100, 150);
+    private static final int FPS = 60;
+    private static final int MAX_SPEED_EXPONENT = 70; // Slider tops out at 10^7 operations per second
     private int[] array = new int[ARRAY_SIZE];
+    private int maxValue = HEIGHT; // Values are drawn scaled so that maxValue fills the height
     private final JButton bubbleSortButton = new JButton("Bubble Sort");
     private final JButton selectionSortButton = new JButton("Selection Sort");
     private final JButton insertionSortButton = new JButton("Insertion Sort");
@@ -19,25 +41,96 @@ public class SortingVisualizer extends JPanel implements ActionListener {
     private final JButton heapSortButton = new JButton("Heap Sort");
     private final JButton unsortButton = new JButton("Un-sort");
     private final JButton mainMenu = new JButton("Main Menu");
+    private final JButton renderModeButton = new JButton("Incremental");
+    private final JComboBox<String> algorithmBox = new JComboBox<>(); // Every Algorithm, buttons or not
+    private final JButton runButton = new JButton("Sort Selected");
+    private final JComboBox<String> workersBox = new JComboBox<>();
+    private static final int[] RADIX_CHOICES = {8, 11, 16};
+    private final JComboBox<String> radixBox = new JComboBox<>();
+    private final JComboBox<String> partitionBox = new JComboBox<>(); // Scheme and pivot of the iterative quick sort
+    private final JComboBox<String> pivotBox = new JComboBox<>();
+    private String runSummary; // Depth and balance of the last iterative quick sort, shown in the HUD
+    private final JButton exportButton = new JButton("Export CSV");
+    private volatile SortCounters counters; // Counters of the current or last run
+    private String hudTitle;
+    private SortCounters.Snapshot hudCounts; // Taken once per frame
+    private final List<String> runLog = new ArrayList<>(); // CSV rows of the finished runs
+    private final int[] workerChoices = workerChoices();
     private boolean isSorting = false;
+    private BarRenderer renderer;
+    // Children per node while a heap sort runs, 0 otherwise; the heap holds [0, heapEnd)
+    private volatile int heapArity;
+    private volatile boolean stagedRun; // The run is a sorting network, paced a stage at a time
+    private int stagesDone; // Of the current run, counted on the sort thread
+    private volatile int heapEnd;
+    private int drawnHeapEnd;
+    private int[] scratchView; // What the sort last stored in auxiliary memory, in the slot of each index
+    private BarRenderer scratchRenderer;
+    private final JComboBox<String> sizeBox = new JComboBox<>();
+    private final JComboBox<String> rangeBox = new JComboBox<>();
+    private final JComboBox<String> distributionBox = new JComboBox<>();
+    private final JTextField seedField = new JTextField(); // Same seed and settings, same array
+    private long seed = ThreadLocalRandom.current().nextLong();
+    private boolean incrementalRendering = true; // Repaint only the columns that changed
 
     private JSlider speedSlider;
+    private final JLabel speedLabel = new JLabel();
     private JButton pauseButton;
-    private boolean isPaused = false;
-    private int delay = 10; // Default delay
+    private final JButton stepButton = new JButton("Step");
+    private final JButton stepFrameButton = new JButton("Step Frame");
+    // Timeline of the last run: its swaps and writes, and the position shown after it finished
+    private volatile OperationLog log;
+    private long timelinePosition;
+    private final JSlider timelineSlider = new JSlider(0, 0, 0);
+    private final JLabel timelineLabel = new JLabel();
+    private final JButton backButton = new JButton("Back");
+    private final JButton forwardButton = new JButton("Forward");
+    private boolean updatingTimeline; // Set while code, not the user, moves the slider
+    private volatile RunController controller = new RunController(); // Pause, step and cancel of the current run
+    private final JToggleButton recordButton = new JToggleButton("Record Trace");
+    private final JButton openTraceButton = new JButton("Open Trace");
+    private Path tracePath; // Where runs are recorded while Record Trace is on
+    private volatile TraceWriter trace; // Trace of the current run, if recording
+    // The render clock presents one frame per tick and grants the sort thread its operations for it
+    private final FramePacer pacer = new FramePacer(FPS, 100); // Default speed
+    private final Timer frameTimer = new Timer(1000 / FPS, e -> renderFrame());
 
     public SortingVisualizer() {
-        setPreferredSize(new Dimension(WIDTH, 790));
+        setPreferredSize(new Dimension(WIDTH, 970)); // Bars, the strip under them and six rows of controls
         setBackground(new Color(30, 30, 30)); // Dark background color
         initArray();
         setupGUI();
+        frameTimer.start();
     }
 
     private void initArray() {
-        Random rand = new Random();
-        for (int i = 0; i < ARRAY_SIZE; i++) {
-            array[i] = rand.nextInt(HEIGHT); // Random height for each bar
+        InputDistribution distribution = InputDistribution.values()[Math.max(0, distributionBox.getSelectedIndex())];
+        new InputGenerator(seed).setMaxValue(maxValue).fill(distribution, array);
+        showArray();
+    }
+
+    // Draws the current array from scratch; it has no timeline yet
+    private void showArray() {
+        seedField.setText(Long.toString(seed));
+        renderer = new BarRenderer(array, maxValue, WIDTH, HEIGHT, getBackground());
+        renderer.setIncremental(incrementalRendering);
+        scratchView = new int[array.length <= SCRATCH_VIEW_LIMIT ? array.length : 0];
+        scratchRenderer = new BarRenderer(scratchView, maxValue, WIDTH, SCRATCH_HEIGHT, SCRATCH_BACKGROUND);
+        scratchRenderer.setIncremental(incrementalRendering);
+        log = null; // A new input has no timeline
+        setTimelineEnabled(false);
+    }
+
+    // Applies the size and value range picked in the combo boxes
+    private void resizeArray() {
+        if (isSorting) return;
+        int size = SIZE_CHOICES[sizeBox.getSelectedIndex()];
+        maxValue = RANGE_CHOICES[rangeBox.getSelectedIndex()];
+        if (size != array.length) {
+            array = new int[size];
         }
+        initArray();
+        repaint();
     }
 
     private void setupGUI() {
@@ -45,14 +138,28 @@ public class SortingVisualizer extends JPanel implements ActionListener {
 
         // Button Panel with GridLayout to ensure buttons fit
         JPanel buttonPanel = new JPanel();
-        buttonPanel.setLayout(new GridLayout(4, 5, 10, 10));
+        buttonPanel.setLayout(new GridLayout(6, 6, 10, 10));
         buttonPanel.setBackground(new Color(40, 40, 40));
 
-        speedSlider = new JSlider(0, 50, delay);
-        speedSlider.addChangeListener(e -> delay = speedSlider.getValue());
+        // Logarithmic speed: slider value v means 10^(v / 10) operations per second
+        speedSlider = new JSlider(0, MAX_SPEED_EXPONENT, 20);
+        speedSlider.addChangeListener(e -> updateSpeed());
+        updateSpeed();
 
         pauseButton = new JButton("Pause");
         pauseButton.addActionListener(this);
+        stepButton.addActionListener(this);
+        stepFrameButton.addActionListener(this);
+        setStepEnabled(false);
+        timelineSlider.addChangeListener(e -> {
+            if (!updatingTimeline && log != null && !isSorting) {
+                seekTimeline(log.start() + timelineSlider.getValue());
+            }
+        });
+        backButton.addActionListener(e -> seekTimeline(timelinePosition - 1));
+        forwardButton.addActionListener(e -> seekTimeline(timelinePosition + 1));
+        recordButton.addActionListener(e -> toggleRecording());
+        openTraceButton.addActionListener(e -> openTrace());
 
         bubbleSortButton.addActionListener(this);
         selectionSortButton.addActionListener(this);
@@ -61,7 +168,42 @@ public class SortingVisualizer extends JPanel implements ActionListener {
         mergeSortButton.addActionListener(this);
         heapSortButton.addActionListener(this);
         unsortButton.addActionListener(e -> unsortArray());
+        renderModeButton.addActionListener(e -> toggleRenderMode());
+        for (int size : SIZE_CHOICES) {
+            sizeBox.addItem(String.format("%,d elements", size));
+        }
+        for (int range : RANGE_CHOICES) {
+            rangeBox.addItem(String.format("Values 0-%,d", range));
+        }
+        sizeBox.addActionListener(e -> resizeArray());
+        rangeBox.addActionListener(e -> resizeArray());
+        for (InputDistribution distribution : InputDistribution.values()) {
+            distributionBox.addItem(distribution.getDisplayName());
+        }
+        distributionBox.addActionListener(e -> resizeArray());
+        seedField.setToolTipText("Seed of the input; press Enter to regenerate it");
+        seedField.addActionListener(e -> applySeed());
+        for (Algorithm algorithm : Algorithm.values()) {
+            algorithmBox.addItem(algorithm.getDisplayName());
+        }
+        for (int workers : workerChoices) {
+            workersBox.addItem(workers + (workers == 1 ? " worker" : " workers"));
+        }
+        workersBox.setSelectedIndex(workerChoices.length - 1);
+        for (int bits : RADIX_CHOICES) {
+            radixBox.addItem(bits + "-bit radix");
+        }
+        for (PartitionScheme scheme : PartitionScheme.values()) {
+            partitionBox.addItem(scheme.getDisplayName());
+        }
+        partitionBox.setSelectedIndex(PartitionScheme.HOARE.ordinal());
+        for (PivotChoice choice : PivotChoice.values()) {
+            pivotBox.addItem(choice.getDisplayName());
+        }
+        pivotBox.setSelectedIndex(PivotChoice.MEDIAN_OF_THREE.ordinal());
+        runButton.addActionListener(this);
         mainMenu.addActionListener(this);
+        exportButton.addActionListener(e -> CounterHud.exportCsv(this, runLog));
 
         // Styling the buttons
         styleButton(bubbleSortButton);
@@ -72,9 +214,27 @@ public class SortingVisualizer extends JPanel implements ActionListener {
         styleButton(heapSortButton);
         styleButton(unsortButton);
         styleButton(pauseButton);
+        styleButton(stepButton);
+        styleButton(stepFrameButton);
+        styleButton(backButton);
+        styleButton(forwardButton);
+        styleButton(openTraceButton);
+        recordButton.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        recordButton.setForeground(Color.WHITE);
+        recordButton.setBackground(new Color(50, 50, 50));
+        recordButton.setFocusPainted(false);
+        timelineSlider.setBackground(new Color(50, 50, 50));
+        timelineSlider.setToolTipText("Timeline of the last run");
+        timelineLabel.setForeground(Color.WHITE);
+        timelineLabel.setHorizontalAlignment(SwingConstants.CENTER);
         styleButton(mainMenu);
+        styleButton(renderModeButton);
+        styleButton(runButton);
+        styleButton(exportButton);
         speedSlider.setBackground(new Color(50, 50, 50));
         speedSlider.setForeground(Color.WHITE);
+        speedLabel.setForeground(Color.WHITE);
+        speedLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
         buttonPanel.add(bubbleSortButton);
         buttonPanel.add(selectionSortButton);
@@ -84,8 +244,29 @@ public class SortingVisualizer extends JPanel implements ActionListener {
         buttonPanel.add(heapSortButton);
         buttonPanel.add(unsortButton);
         buttonPanel.add(speedSlider);
+        buttonPanel.add(speedLabel);
         buttonPanel.add(pauseButton);
         buttonPanel.add(mainMenu);
+        buttonPanel.add(renderModeButton);
+        buttonPanel.add(sizeBox);
+        buttonPanel.add(rangeBox);
+        buttonPanel.add(distributionBox);
+        buttonPanel.add(seedField);
+        buttonPanel.add(algorithmBox);
+        buttonPanel.add(runButton);
+        buttonPanel.add(workersBox);
+        buttonPanel.add(radixBox);
+        buttonPanel.add(partitionBox);
+        buttonPanel.add(pivotBox);
+        buttonPanel.add(exportButton);
+        buttonPanel.add(stepButton);
+        buttonPanel.add(stepFrameButton);
+        buttonPanel.add(backButton);
+        buttonPanel.add(timelineSlider);
+        buttonPanel.add(forwardButton);
+        buttonPanel.add(timelineLabel);
+        buttonPanel.add(recordButton);
+        buttonPanel.add(openTraceButton);
         add(buttonPanel, BorderLayout.SOUTH);
 
 
@@ -105,28 +286,114 @@ public class SortingVisualizer extends JPanel implements ActionListener {
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (array != null) {
-            g.setColor(new Color(0, 150, 255)); // Blue color for bars
-            for (int i = 0; i < ARRAY_SIZE; i++) {
-                g.fillRect(i * BAR_WIDTH, HEIGHT - array[i], BAR_WIDTH, array[i]);
+        renderer.paint(g);
+        Graphics strip = g.create(0, HEIGHT, WIDTH, SCRATCH_HEIGHT);
+        scratchRenderer.paint(strip);
+        if (heapArity > 0) {
+            drawHeapLevels(strip);
+        } else {
+            strip.setColor(Color.LIGHT_GRAY);
+            strip.drawString(scratchLabel(), 8, 16);
+        }
+        strip.dispose();
+        if (hudCounts != null) {
+            CounterHud.draw(g, hudTitle, hudCounts, runSummary);
+        }
+        Toolkit.getDefaultToolkit().sync();
+    }
 
-                g.setColor(Color.BLACK); // Set color for outline
-                g.drawRect(i * BAR_WIDTH, HEIGHT - array[i], BAR_WIDTH, array[i]); // Draw the outline
+    private String scratchLabel() {
+        if (scratchView.length == 0 && array.length > 0) {
+            return "Auxiliary buffer: not shown above " + String.format("%,d", SCRATCH_VIEW_LIMIT) + " elements";
+        }
+        return hudCounts == null ? "Auxiliary buffer"
+                : String.format("Auxiliary buffer: %,d bytes allocated", hudCounts.auxBytes);
+    }
 
-                g.setColor(new Color(0, 150, 255)); //Resetting the color of the bar to blue
+    // Heap sorts keep no buffer, so their strip shows the heap instead: one band per level under
+    // the bars that level occupies, up to where the heap ends and the sorted tail begins
+    private void drawHeapLevels(Graphics g) {
+        int arity = heapArity;
+        int end = heapEnd;
+        drawnHeapEnd = end;
+        int[] starts = HeapSorts.levelStarts(arity, array.length);
+        int k = 0;
+        for (; k + 1 < starts.length && starts[k] < end; k++) {
+            int x = renderer.xOf(starts[k]);
+            int width = Math.max(1, renderer.xOf(Math.min(starts[k + 1], end)) - x);
+            g.setColor(k % 2 == 0 ? HEAP_LEVEL_COLOR : HEAP_LEVEL_ALTERNATE_COLOR);
+            g.fillRect(x, 24, width, SCRATCH_HEIGHT - 24);
+            g.setColor(Color.WHITE);
+            String label = "L" + k;
+            if (g.getFontMetrics().stringWidth(label) + 4 <= width) {
+                g.drawString(label, x + 2, SCRATCH_HEIGHT - 8);
             }
         }
+        g.setColor(Color.LIGHT_GRAY);
+        g.drawString(String.format("%d-ary heap of %,d elements, %d levels", arity, end, k), 8, 16);
+    }
+
+    // One tick of the render clock: release the next batch of operations and present what
+    // changed since the last frame as a single repaint
+    private void renderFrame() {
+        pacer.tick();
+        Rectangle changed = renderer.flush();
+        if (changed != null) {
+            repaint(changed.x, changed.y, changed.width, changed.height);
+        }
+        if (heapArity > 0 && heapEnd != drawnHeapEnd) {
+            repaint(0, HEIGHT, WIDTH, SCRATCH_HEIGHT);
+        }
+        Rectangle scratchChanged = scratchRenderer.flush();
+        if (scratchChanged != null) {
+            repaint(scratchChanged.x, HEIGHT + scratchChanged.y, scratchChanged.width, scratchChanged.height);
+        }
+        SortCounters running = counters;
+        if (isSorting && running != null) {
+            hudCounts = running.snapshot();
+            repaint(CounterHud.bounds());
+        }
+    }
+
+    private void updateSpeed() {
+        long opsPerSecond = Math.round(Math.pow(10, speedSlider.getValue() / 10.0));
+        pacer.setOpsPerSecond(opsPerSecond);
+        speedLabel.setText(String.format("%,d ops/s", opsPerSecond));
+    }
+
+    private void toggleRenderMode() {
+        incrementalRendering = !incrementalRendering;
+        renderModeButton.setText(incrementalRendering ? "Incremental" : "Full Repaint");
+        renderer.setIncremental(incrementalRendering);
+        scratchRenderer.setIncremental(incrementalRendering);
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
 
         if (e.getSource() == pauseButton) {
-            isPaused = !isPaused;
-            pauseButton.setText(isPaused ? "Resume" : "Pause");
+            if (controller.isPaused()) {
+                controller.resume();
+            } else {
+                controller.pause();
+            }
+            pauseButton.setText(controller.isPaused() ? "Resume" : "Pause");
+            setStepEnabled(controller.isPaused());
             return; // Important: Return to avoid starting a new sort
         }
+        if (e.getSource() == stepButton) {
+            controller.step(1);
+            return;
+        }
+        if (e.getSource() == stepFrameButton) {
+            controller.step(Math.max(1, pacer.getOpsPerSecond() / FPS));
+            return;
+        }
         if(e.getSource()==mainMenu){
+            frameTimer.stop();
+            // Release the sort thread now rather than leave it blocked on a clock that has stopped
+            controller.cancel();
+            pacer.release();
             Window window = SwingUtilities.getWindowAncestor(this);
             window.dispose();
             new SplashScreen();
@@ -134,316 +401,378 @@ public class SortingVisualizer extends JPanel implements ActionListener {
         }
 
         if (isSorting) return; // Prevent multiple sorts at once
-        isSorting = true;
 
         // Run the sorting algorithms in background using SwingWorker which will create a separate thread to handle sorting
-        if (e.getSource() == bubbleSortButton) {
-            new SortWorker("Bubble Sort") {
-                @Override
-                protected Void doInBackground() {
-                    bubbleSort();
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == selectionSortButton) {
-            new SortWorker("Selection Sort") {
-                @Override
-                protected Void doInBackground() {
-                    selectionSort();
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == insertionSortButton) {
-            new SortWorker("Insertion Sort") {
-                @Override
-                protected Void doInBackground() {
-                    insertionSort();
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == quickSortButton) {
-            new SortWorker("Quick Sort") {
-                @Override
-                protected Void doInBackground() {
-                    quickSort(0, ARRAY_SIZE - 1);
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == mergeSortButton) {
-            new SortWorker("Merge Sort") {
-                @Override
-                protected Void doInBackground() {
-                    mergeSort(0, ARRAY_SIZE - 1);
-                    return null;
-                }
-            }.execute();
-        } else if (e.getSource() == heapSortButton) {
-            new SortWorker("Heap Sort") {
-                @Override
-                protected Void doInBackground() {
-                    heapSort();
-                    return null;
-                }
-            }.execute();
+        Algorithm algorithm = algorithmFor(e.getSource());
+        if (algorithm == null) {
+            return;
         }
+        int workers = workerChoices[workersBox.getSelectedIndex()];
+        int radixBits = RADIX_CHOICES[radixBox.getSelectedIndex()];
+        PartitionScheme scheme = PartitionScheme.values()[partitionBox.getSelectedIndex()];
+        PivotChoice choice = PivotChoice.values()[pivotBox.getSelectedIndex()];
+        InputDistribution distribution = InputDistribution.values()[distributionBox.getSelectedIndex()];
+        beginRun(algorithm.name(), distribution.name());
+        heapArity = heapArity(algorithm);
+        stagedRun = algorithm == Algorithm.BITONIC;
+        long pivotSeed = seed;
+        new SortWorker(algorithm.getDisplayName(), distribution.name()) {
+            @Override
+            protected void sort(SortListener listener) {
+                SortEngine engine = new SortEngine(array, listener)
+                        .setSeed(pivotSeed)
+                        .setParallelism(workers)
+                        .setRadixBits(radixBits)
+                        .setPartitionScheme(scheme)
+                        .setPivotChoice(choice);
+                engine.sort(algorithm);
+                if (algorithm == Algorithm.ITERATIVE_QUICK) {
+                    runSummary = scheme.getDisplayName() + ", " + choice.getDisplayName() + ": " + engine.getPartitionStats();
+                }
+            }
+        }.execute();
     }
 
-    // SwingWorker for handling sorting in background
-    private abstract class SortWorker extends SwingWorker<Void, Void> {
-        private final String sortType;
-
-        SortWorker(String sortType) {
-            this.sortType = sortType;
+    // Everything a run needs before its SortWorker is created: a fresh controller that inherits
+    // the pause state, an empty timeline and, if Record Trace is on, a trace file
+    private void beginRun(String algorithm, String distribution) {
+        isSorting = true;
+        setSizeControlsEnabled(false);
+        pacer.reset();
+        RunController next = new RunController();
+        if (controller.isPaused()) {
+            next.pause(); // Paused before the start, so the run starts paused
         }
+        controller = next;
+        runSummary = null;
+        heapArity = 0;
+        heapEnd = array.length;
+        stagedRun = false;
+        stagesDone = 0;
+        Arrays.fill(scratchView, 0); // Each run starts with an empty auxiliary buffer
+        scratchRenderer.markAllDirty();
+        // Bounded memory either way, but ten million elements would not fit two checkpoints
+        log = OperationLog.fits(array.length) ? new OperationLog(array) : null;
+        setTimelineEnabled(false);
+        trace = null;
+        if (tracePath != null) {
+            try {
+                trace = new TraceWriter(tracePath, algorithm, distribution, seed, maxValue, array);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Could not record to " + tracePath + ": " + ex.getMessage(),
+                        "Record Trace", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+        repaint();
+    }
 
-        @Override
-        protected void done() {
-            isSorting = false; // Reset for next sort
+    private void toggleRecording() {
+        if (!recordButton.isSelected()) {
+            tracePath = null;
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("run.svtrace"));
+        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            tracePath = chooser.getSelectedFile().toPath();
+        } else {
+            recordButton.setSelected(false);
         }
     }
 
-    // Sorting Algorithms
-    private void bubbleSort() {
-        for (int i = 0; i < ARRAY_SIZE - 1; i++) {
-            for (int j = 0; j < ARRAY_SIZE - i - 1; j++) {
-                if (array[j] > array[j + 1]) {
-                    int temp = array[j];
-                    array[j] = array[j + 1];
-                    array[j + 1] = temp;
-                    try {
-                        Thread.sleep(delay);
-                        while (isPaused) {
-                            Thread.sleep(100); // Check pause status periodically
+    // Loads a trace's input in place of the current array and plays its operations back through
+    // the same pacing, counters and timeline as a live sort
+    private void openTrace() {
+        if (isSorting) return;
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        TraceReader reader;
+        int[] input;
+        try {
+            reader = new TraceReader(chooser.getSelectedFile().toPath());
+            input = new int[reader.getLength()];
+            reader.readInitial(input);
+        } catch (IOException | RuntimeException ex) {
+            JOptionPane.showMessageDialog(this, "Could not open trace: " + ex.getMessage(),
+                    "Open Trace", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        array = input;
+        maxValue = Math.max(1, reader.getMaxValue());
+        seed = reader.getSeed();
+        showArray();
+        String title = reader.getAlgorithm();
+        try {
+            title = Algorithm.valueOf(title).getDisplayName();
+        } catch (IllegalArgumentException ex) {
+            // Recorded by a build with other algorithms; show the name as stored
+        }
+        beginRun(reader.getAlgorithm(), reader.getDistribution());
+        int[] target = array;
+        new SortWorker("Trace: " + title, reader.getDistribution()) {
+            @Override
+            protected void sort(SortListener listener) {
+                try (TraceReader source = reader) {
+                    for (long k = 0; k < source.getCount(); k++) {
+                        long operation = source.operation(k);
+                        int first = OperationLog.first(operation);
+                        int second = OperationLog.second(operation);
+                        if (first >= target.length || !OperationLog.isWrite(operation) && (second < 0 || second >= target.length)) {
+                            throw new IOException("Operation " + k + " is out of range for " + target.length + " elements");
+                        }
+                        if (OperationLog.isWrite(operation)) {
+                            int oldValue = target[first];
+                            target[first] = second;
+                            listener.onWrite(first, oldValue, second);
+                        } else {
+                            OperationLog.apply(operation, target);
+                            listener.onSwap(first, second);
                         }
-                    } catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
                     }
-                    SwingUtilities.invokeLater(this::repaint);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
                 }
             }
-        }
+        }.execute();
     }
 
-    private void selectionSort() {
-        for (int i = 0; i < ARRAY_SIZE - 1; i++) {
-            int minIdx = i;
-            for (int j = i + 1; j < ARRAY_SIZE; j++) {
-                if (array[j] < array[minIdx]) {
-                    minIdx = j;
-                }
-            }
-            int temp = array[minIdx];
-            array[minIdx] = array[i];
-            array[i] = temp;
-            try {
-                Thread.sleep(delay);
-                while (isPaused) {
-                    Thread.sleep(100); // Check pause status periodically
-                }
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
-            SwingUtilities.invokeLater(this::repaint);
-        }
+    // Powers of two up to 32 plus this machine's core count
+    private static int[] workerChoices() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return IntStream.concat(IntStream.iterate(1, w -> w <= 32, w -> w * 2), IntStream.of(cores))
+                .distinct().sorted().toArray();
     }
 
-    private void insertionSort() {
-        for (int i = 1; i < ARRAY_SIZE; i++) {
-            int key = array[i];
-            int j = i - 1;
-            while (j >= 0 && key < array[j]) {
-                array[j + 1] = array[j];
-                j--;
-                try {
-                    Thread.sleep(delay);
-                    while (isPaused) {
-                        Thread.sleep(100); // Check pause status periodically
-                    }
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-                SwingUtilities.invokeLater(this::repaint);
-            }
-            array[j + 1] = key;
-            try {
-                Thread.sleep(delay);
-                while (isPaused) {
-                    Thread.sleep(100); // Check pause status periodically
-                }
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
-            SwingUtilities.invokeLater(this::repaint);
+    private void setTimelineEnabled(boolean enabled) {
+        timelineSlider.setEnabled(enabled);
+        backButton.setEnabled(enabled);
+        forwardButton.setEnabled(enabled);
+        if (!enabled) {
+            timelineLabel.setText(log == null ? "No timeline" : "Recording");
         }
     }
 
-    private void quickSort(int low, int high) {
-        if (low < high) {
-            int pi = partition(low, high);
-            quickSort(low, pi - 1);
-            quickSort(pi + 1, high);
-        }
+    // Shows the array as it was after position operations of the last run, clamped to what the
+    // log still holds: the nearest checkpoint is copied in and the operations since replayed
+    private void seekTimeline(long position) {
+        OperationLog timeline = log;
+        if (timeline == null || isSorting) return;
+        long start = timeline.start();
+        long end = timeline.size();
+        timelinePosition = Math.max(start, Math.min(end, position));
+        timeline.restore(timelinePosition, array);
+        renderer.markAllDirty(); // The next frame redraws every column
+        updatingTimeline = true;
+        timelineSlider.setMaximum((int) (end - start));
+        timelineSlider.setValue((int) (timelinePosition - start));
+        updatingTimeline = false;
+        timelineLabel.setText(String.format("Op %,d of %,d", timelinePosition, end));
     }
 
-    private int partition(int low, int high) {
-        int pivot = array[high];
-        int i = (low - 1);
-        for (int j = low; j < high; j++) {
-            if (array[j] < pivot) {
-                i++;
-                int temp = array[i];
-                array[i] = array[j];
-                array[j] = temp;
+    private void setStepEnabled(boolean enabled) {
+        stepButton.setEnabled(enabled);
+        stepFrameButton.setEnabled(enabled);
+    }
 
-                // Repaint after each swap!
-                try {
-                    Thread.sleep(delay);
-                    while (isPaused) {
-                        Thread.sleep(100); // Check pause status periodically
-                    }
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-                SwingUtilities.invokeLater(this::repaint);
-            }
-        }
-        int temp = array[i + 1];
-        array[i + 1] = array[high];
-        array[high] = temp;
-        try {
-            Thread.sleep(delay);
-            while (isPaused) {
-                Thread.sleep(100); // Check pause status periodically
-            }
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-        }
-        SwingUtilities.invokeLater(this::repaint);
-        return i + 1;
+    private void setSizeControlsEnabled(boolean enabled) {
+        sizeBox.setEnabled(enabled);
+        rangeBox.setEnabled(enabled);
+        distributionBox.setEnabled(enabled);
+        seedField.setEnabled(enabled);
+        workersBox.setEnabled(enabled);
+        radixBox.setEnabled(enabled);
+        partitionBox.setEnabled(enabled);
+        pivotBox.setEnabled(enabled);
     }
 
-    private void mergeSort(int left, int right) {
-        if (left < right) {
-            int mid = (left + right) / 2;
-            mergeSort(left, mid);
-            mergeSort(mid + 1, right);
-            merge(left, mid, right);
+    private static int heapArity(Algorithm algorithm) {
+        switch (algorithm) {
+            case HEAP:
+            case BOTTOM_UP_HEAP:
+                return 2;
+            case QUATERNARY_HEAP:
+                return 4;
+            case OCTONARY_HEAP:
+                return 8;
+            default:
+                return 0;
         }
     }
 
-    private void merge(int left, int mid, int right) {
-        int n1 = mid - left + 1;
-        int n2 = right - mid;
-        int[] leftArray = new int[n1];
-        int[] rightArray = new int[n2];
-        for (int i = 0; i < n1; i++) {
-            leftArray[i] = array[left + i];
-        }
+    private Algorithm algorithmFor(Object source) {
+        if (source == bubbleSortButton) return Algorithm.BUBBLE;
+        if (source == selectionSortButton) return Algorithm.SELECTION;
+        if (source == insertionSortButton) return Algorithm.INSERTION;
+        if (source == quickSortButton) return Algorithm.QUICK;
+        if (source == mergeSortButton) return Algorithm.MERGE;
+        if (source == heapSortButton) return Algorithm.HEAP;
+        if (source == runButton) return Algorithm.values()[algorithmBox.getSelectedIndex()];
+        return null;
+    }
 
-        for (int i = 0; i < n2; i++) {
-            rightArray[i] = array[mid + 1 + i];
+    // SwingWorker for handling sorting in background. Every operation the sort reports goes
+    // through the run's counters on its way to this panel.
+    private abstract class SortWorker extends SwingWorker<Void, Void> {
+        private final String sortType;
+        private final SortCounters runCounters = new SortCounters();
+        private final String distribution;
+        private final long runSeed = seed;
+        private final RunController runController = controller;
+        private final TraceWriter runTrace = trace;
+
+        SortWorker(String sortType, String distribution) {
+            this.sortType = sortType;
+            this.distribution = distribution;
+            hudTitle = sortType;
+            hudCounts = runCounters.snapshot();
+            counters = runCounters;
         }
 
-        int i = 0, j = 0, k = left;
-        while (i < n1 && j < n2) {
-            if (leftArray[i] <= rightArray[j]) {
-                array[k] = leftArray[i];
-                i++;
-            } else {
-                array[k] = rightArray[j];
-                j++;
-            }
-            k++;
+        protected abstract void sort(SortListener listener);
+
+        @Override
+        protected Void doInBackground() throws IOException {
             try {
-                Thread.sleep(delay);
-                while (isPaused) {
-                    Thread.sleep(100); // Check pause status periodically
+                sort(runCounters.counting(SortingVisualizer.this));
+            } catch (CancellationException ex) {
+                // Cancelled from the main menu; the panel is gone
+            } finally {
+                runCounters.finish();
+                if (runTrace != null) {
+                    runTrace.close(); // Completes the trace even if the run stopped early
                 }
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
             }
-            SwingUtilities.invokeLater(this::repaint);
+            return null;
         }
 
-        while (i < n1) {
-            array[k] = leftArray[i];
-            i++;
-            k++;
+        @Override
+        protected void done() {
+            isSorting = false; // Reset for next sort
+            setSizeControlsEnabled(true);
+            renderer.clearOwners();
+            hudCounts = runCounters.snapshot();
+            if (runController.isCancelled()) return;
             try {
-                Thread.sleep(delay);
-                while (isPaused) {
-                    Thread.sleep(100); // Check pause status periodically
-                }
+                get();
+            } catch (ExecutionException ex) {
+                JOptionPane.showMessageDialog(SortingVisualizer.this, sortType + " failed: " + ex.getCause().getMessage(),
+                        "Sort", JOptionPane.ERROR_MESSAGE);
+                return;
             } catch (InterruptedException ex) {
                 Thread.currentThread().interrupt();
             }
-            SwingUtilities.invokeLater(this::repaint);
+            runLog.add(hudCounts.toCsv(sortType, array.length, distribution, runSeed));
+            if (log != null) {
+                setTimelineEnabled(true);
+                seekTimeline(log.size());
+            }
+            repaint(); // Final counts and the run summary
         }
+    }
 
-        while (j < n2) {
-            array[k] = rightArray[j];
-            j++;
-            k++;
-            try {
-                Thread.sleep(delay);
-                while (isPaused) {
-                    Thread.sleep(100); // Check pause status periodically
-                }
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
-            SwingUtilities.invokeLater(this::repaint);
+    // The SortEngine reports every swap and write here. Each one spends an operation of the
+    // current frame's budget; the render clock draws the changed columns at the next tick.
+    @Override
+    public void onSwap(int i, int j) {
+        if (i != j) {
+            // The swap already happened, so each side's old value now sits at the other index
+            renderer.changed(i, array[j], array[i]);
+            renderer.changed(j, array[i], array[j]);
         }
+        OperationLog recording = log;
+        if (recording != null) {
+            recording.swap(i, j);
+        }
+        TraceWriter tracing = trace;
+        if (tracing != null) {
+            tracing.swap(i, j);
+        }
+        operationDone();
     }
 
-    private void heapSort() {
-        buildMaxHeap();
-        for (int i = ARRAY_SIZE - 1; i >= 0; i--) {
-            int temp = array[0];
-            array[0] = array[i];
-            array[i] = temp;
-            maxHeapify(0, i);
-            try {
-                Thread.sleep(delay);
-                while (isPaused) {
-                    Thread.sleep(100); // Check pause status periodically
-                }
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
-            SwingUtilities.invokeLater(this::repaint);
+    @Override
+    public void onWrite(int index, int oldValue, int newValue) {
+        renderer.changed(index, oldValue, newValue);
+        OperationLog recording = log;
+        if (recording != null) {
+            recording.write(index, newValue);
+        }
+        TraceWriter tracing = trace;
+        if (tracing != null) {
+            tracing.write(index, newValue);
         }
+        operationDone();
     }
 
-    private void buildMaxHeap() {
-        for (int i = ARRAY_SIZE / 2 - 1; i >= 0; i--) {
-            maxHeapify(i, ARRAY_SIZE);
+    // Merge buffers and other auxiliary memory go to the strip under the bars, at the same pace
+    @Override
+    public void onScratchWrite(int index, int value) {
+        int[] view = scratchView;
+        if (index < view.length) {
+            int oldValue = view[index];
+            view[index] = value;
+            scratchRenderer.changed(index, oldValue, value);
         }
+        operationDone();
     }
 
-    private void maxHeapify(int i, int n) {
-        int left = 2 * i + 1;
-        int right = 2 * i + 2;
-        int largest = i;
-        if (left < n && array[left] > array[largest]) {
-            largest = left;
+    // Parallel sorts announce each range a fork/join worker takes over; tint it in that worker's color.
+    // Heap sorts announce the heap that remains.
+    @Override
+    public void onRange(int from, int to) {
+        if (heapArity > 0 && from == 0) {
+            heapEnd = to + 1; // A heap sort announces the heap left after each extraction
+        }
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ForkJoinWorkerThread) {
+            renderer.setOwner(from, to, ((ForkJoinWorkerThread) thread).getPoolIndex());
         }
-        if (right < n && array[right] > array[largest]) {
-            largest = right;
+    }
+
+    // Sorting networks spend the frame budget per stage instead, so each stage shows as one
+    // parallel step across the array
+    private void operationDone() {
+        if (stagedRun) {
+            controller.checkpoint();
+        } else {
+            step();
         }
-        if (largest != i) {
-            int temp = array[i];
-            array[i] = array[largest];
-            array[largest] = temp;
-            maxHeapify(largest, n);
+    }
+
+    @Override
+    public void onStage() {
+        stagesDone++;
+        runSummary = String.format("Stage %d of %d", stagesDone, BitonicSorts.stages(array.length));
+        step();
+    }
+
+    private void step() {
+        controller.checkpoint(); // Blocks while paused, throws once cancelled
+        try {
+            pacer.acquire(); // Blocks until the next frame once the budget is spent
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Sort thread interrupted");
         }
     }
 
     private void unsortArray() {
         if (!isSorting) {
+            seed = ThreadLocalRandom.current().nextLong(); // Fresh input; the seed field shows how to get it back
             initArray();
             repaint();
         }
     }
 
+    // Regenerates the input from the seed typed into the seed field
+    private void applySeed() {
+        try {
+            seed = Long.parseLong(seedField.getText().trim());
+        } catch (NumberFormatException ex) {
+            seedField.setText(Long.toString(seed));
+            return;
+        }
+        resizeArray();
+    }
+
 }
@@ -0,0 +1,74 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Headless wall-time comparison of each parallel sort against its sequential counterpart on the
+// same input, for every worker count from 1 up to this machine's cores. Efficiency is the
+// speedup divided by the number of workers.
+// Usage: java -cp src SpeedupReport [size ...]
+public class SpeedupReport {
+
+    // Sorts array using the given number of workers (ignored by sequential sorts)
+    private interface Sorter {
+        void sort(int[] array, int workers);
+    }
+
+    private static final String[] NAMES = {
+            Algorithm.MERGE.getDisplayName(), Algorithm.PARALLEL_MERGE.getDisplayName(),
+            Algorithm.QUICK.getDisplayName(), Algorithm.PARALLEL_QUICK.getDisplayName(),
+            "Arrays.sort", "Arrays.parallelSort",
+    };
+    private static final Sorter[] SORTERS = {
+            engine(Algorithm.MERGE), engine(Algorithm.PARALLEL_MERGE),
+            engine(Algorithm.QUICK), engine(Algorithm.PARALLEL_QUICK),
+            (array, workers) -> Arrays.sort(array), SpeedupReport::parallelSort,
+    };
+
+    private static final Reports.Table TABLE = new Reports.Table()
+            .column("algorithm", "%-22s").column("size", "%,12d").column("workers", "%8d")
+            .column("wall ms", "%12.2f").column("speedup", "%8.2fx").column("efficiency", "%10.0f%%");
+
+    public static void main(String[] args) {
+        int[] sizes = Reports.sizes(args, 1_000_000, 10_000_000);
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] levels = IntStream.concat(IntStream.iterate(1, w -> w < cores, w -> w * 2), IntStream.of(cores))
+                .distinct().toArray();
+
+        TABLE.printHeader();
+        for (int size : sizes) {
+            int[] input = new InputGenerator(42).generate(InputDistribution.RANDOM, size);
+            // Entries come in pairs: a sequential baseline followed by its parallel version
+            for (int k = 0; k < SORTERS.length; k += 2) {
+                double baseline = bestMillis(NAMES[k], SORTERS[k], input, 1);
+                print(NAMES[k], size, 1, baseline, baseline);
+                for (int workers : levels) {
+                    print(NAMES[k + 1], size, workers, bestMillis(NAMES[k + 1], SORTERS[k + 1], input, workers), baseline);
+                }
+            }
+        }
+    }
+
+    private static Sorter engine(Algorithm algorithm) {
+        return (array, workers) -> new SortEngine(array).setParallelism(workers).sort(algorithm);
+    }
+
+    // Arrays.parallelSort forks into the pool of the thread calling it, so running it inside a
+    // pool of the requested size limits it to that many workers
+    private static void parallelSort(int[] array, int workers) {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            pool.submit(() -> Arrays.parallelSort(array)).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void print(String name, int size, int workers, double millis, double baseline) {
+        double speedup = baseline / millis;
+        TABLE.printRow(name, size, workers, millis, speedup, 100 * speedup / workers);
+    }
+
+    private static double bestMillis(String name, Sorter sorter, int[] input, int workers) {
+        return Reports.bestNanos(name, input, array -> sorter.sort(array, workers)) / 1e6;
+    }
+}
@@ -11,7 +11,7 @@ public class SplashScreen extends JFrame {
 
     public SplashScreen() {
         setTitle("Sorting Visualizer");
-        setSize(500, 400);
+        setSize(500, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(20, 20));
         getContentPane().setBackground(Color.DARK_GRAY);
@@ -37,12 +37,14 @@ public class SplashScreen extends JFrame {
 
         // Buttons Panel
         JPanel buttonPanel = new JPanel();
-        buttonPanel.setLayout(new GridLayout(2, 1, 20, 20));
+        buttonPanel.setLayout(new GridLayout(4, 1, 20, 20));
         buttonPanel.setBackground(Color.DARK_GRAY);
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(15, 30, 30, 30));
 
         JButton arrayButton = createStyledButton("Array Visualization", "View and sort arrays in real-time");
         JButton linkedListButton = createStyledButton("Linked List Visualization", "Visualize linked list sorting algorithms");
+        JButton raceButton = createStyledButton("Race Mode", "Race every array sort on several inputs at once");
+        JButton externalButton = createStyledButton("External Sort", "Sort a file larger than memory in runs and merges");
 
         arrayButton.addActionListener(e -> {
             JFrame frame = new JFrame("Sorting Visualizer");
@@ -62,8 +64,28 @@ public class SplashScreen extends JFrame {
             dispose();
         });
 
+        raceButton.addActionListener(e -> {
+            JFrame frame = new JFrame("Sorting Race");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.getContentPane().add(new RaceVisualizer());
+            frame.pack();
+            frame.setVisible(true);
+            dispose();
+        });
+
+        externalButton.addActionListener(e -> {
+            JFrame frame = new JFrame("External Sort");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.getContentPane().add(new ExternalSortVisualizer());
+            frame.pack();
+            frame.setVisible(true);
+            dispose();
+        });
+
         buttonPanel.add(arrayButton);
         buttonPanel.add(linkedListButton);
+        buttonPanel.add(raceButton);
+        buttonPanel.add(externalButton);
 
         add(welcomePanel, BorderLayout.NORTH);
         add(buttonPanel, BorderLayout.CENTER);
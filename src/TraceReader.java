@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a trace written by TraceWriter. Nothing but the header is read up front: the initial
+// array and the operations are read through memory-mapped windows of the file, so a trace of
+// several gigabytes replays without ever being loaded onto the heap.
+class TraceReader implements AutoCloseable {
+
+    private static final long WINDOW = 1L << 26; // Bytes mapped at a time, a multiple of 8
+
+    private final FileChannel channel;
+    private final long seed;
+    private final int maxValue;
+    private final String algorithm;
+    private final String distribution;
+    private final int length;
+    private final long count;
+    private final long arrayOffset;
+    private final long operationsOffset;
+
+    private MappedByteBuffer window; // Operations [windowFirst, windowFirst + WINDOW / 8)
+    private long windowFirst = -1;
+
+    TraceReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 1 << 18));
+            if (header.remaining() < Integer.BYTES || header.getInt() != TraceWriter.MAGIC) {
+                throw new IOException(path + " is not a sort trace");
+            }
+            short version = header.getShort();
+            if (version > TraceWriter.VERSION) {
+                throw new IOException(path + " has trace format version " + version
+                        + "; this build reads up to " + TraceWriter.VERSION);
+            }
+            header.getShort(); // Flags
+            seed = header.getLong();
+            maxValue = header.getInt();
+            algorithm = getString(header);
+            distribution = getString(header);
+            length = header.getInt();
+            count = header.getLong();
+            arrayOffset = header.position();
+            operationsOffset = arrayOffset + (long) length * Integer.BYTES;
+            if (length < 0 || count < 0 || operationsOffset + count * Long.BYTES > channel.size()) {
+                throw new IOException(path + " is truncated or was not closed properly");
+            }
+        } catch (BufferUnderflowException ex) {
+            channel.close();
+            throw new IOException(path + " is truncated", ex);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int getMaxValue() {
+        return maxValue;
+    }
+
+    String getAlgorithm() {
+        return algorithm;
+    }
+
+    String getDistribution() {
+        return distribution;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    // Copies the array as it was before the sort into target, which holds at least getLength() ints
+    void readInitial(int[] target) throws IOException {
+        for (long done = 0; done < length; ) {
+            int chunk = (int) Math.min(length - done, WINDOW / Integer.BYTES);
+            channel.map(FileChannel.MapMode.READ_ONLY, arrayOffset + done * Integer.BYTES, (long) chunk * Integer.BYTES)
+                    .asIntBuffer().get(target, (int) done, chunk);
+            done += chunk;
+        }
+    }
+
+    // The k-th operation, packed as in OperationLog. Sequential reads stay within one mapped
+    // window until they cross into the next.
+    long operation(long k) throws IOException {
+        if (k < 0 || k >= count) {
+            throw new IndexOutOfBoundsException("Operation " + k + " of " + count);
+        }
+        long perWindow = WINDOW / Long.BYTES;
+        if (window == null || k < windowFirst || k >= windowFirst + perWindow) {
+            windowFirst = k - k % perWindow;
+            long size = Math.min(perWindow, count - windowFirst) * Long.BYTES;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, operationsOffset + windowFirst * Long.BYTES, size);
+        }
+        return window.getLong((int) ((k - windowFirst) * Long.BYTES));
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
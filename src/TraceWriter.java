@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes a sort run to a trace file that TraceReader can replay, here or on another machine.
+// All numbers are big-endian:
+//
+//   int    magic "SVTR"
+//   short  format version
+//   short  flags, 0
+//   long   seed of the input
+//   int    maxValue, the exclusive upper bound of the values
+//   short  length of the algorithm name, then its UTF-8 bytes (Algorithm.name())
+//   short  length of the distribution name, then its UTF-8 bytes (InputDistribution.name())
+//   int    array length n
+//   long   operation count, filled in by close()
+//   int[n] the array before the sort
+//   long[] the operations, packed as in OperationLog
+//
+// Operations collect in a direct buffer and go to the FileChannel a buffer at a time. Sort threads
+// call swap and write, from several threads at once in the parallel sorts.
+class TraceWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x53565452; // "SVTR"
+    static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final long countOffset;
+    private long count;
+
+    TraceWriter(Path path, String algorithm, String distribution, long seed, int maxValue, int[] initial) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(seed).putInt(maxValue);
+            putString(algorithm);
+            putString(distribution);
+            buffer.putInt(initial.length);
+            countOffset = buffer.position();
+            buffer.putLong(0);
+            for (int value : initial) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain();
+                }
+                buffer.putInt(value);
+            }
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private void putString(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    synchronized void swap(int i, int j) {
+        put(OperationLog.swapOperation(i, j));
+    }
+
+    synchronized void write(int index, int value) {
+        put(OperationLog.writeOperation(index, value));
+    }
+
+    private void put(long operation) {
+        try {
+            if (buffer.remaining() < Long.BYTES) {
+                drain();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        buffer.putLong(operation);
+        count++;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    synchronized long getCount() {
+        return count;
+    }
+
+    // Writes what is buffered and the operation count, then closes the file
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            drain();
+            ByteBuffer countBuffer = ByteBuffer.allocate(Long.BYTES).putLong(0, count);
+            while (countBuffer.hasRemaining()) {
+                channel.write(countBuffer, countOffset + countBuffer.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
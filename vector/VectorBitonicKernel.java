@@ -0,0 +1,89 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+// BitonicKernel on the incubating Vector API, in the widest species this CPU has: 16 lanes with
+// AVX-512, 8 with AVX2. Stages whose pairs lie a vector or more apart are a lane-wise min and max
+// of two vectors, the mirrored first stage of a merge reversing one of them. Stages within a
+// vector pair each lane with its partner through a shuffle and keep the min in the lower lane and
+// the max in the upper one with a blend.
+//
+// This source root is compiled with --add-modules jdk.incubator.vector and the class is only
+// loaded by BitonicSorts once that module is known to be present.
+final class VectorBitonicKernel implements BitonicKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorShuffle<Integer> REVERSE = VectorShuffle.fromOp(SPECIES, lane -> LANES - 1 - lane);
+
+    // Indexed by log2 of j for the stages with j below LANES
+    private final VectorShuffle<Integer>[] mirror; // Lane l to l ^ (2j - 1), the first stage of a merge
+    private final VectorShuffle<Integer>[] partner; // Lane l to l ^ j
+    private final VectorMask<Integer>[] upper; // Lanes with bit j set, which keep the max
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    VectorBitonicKernel() {
+        if (BitonicSorts.BLOCK % (LANES * 2) != 0) {
+            throw new IllegalStateException(LANES + " lanes do not divide a block of " + BitonicSorts.BLOCK);
+        }
+        int levels = Integer.numberOfTrailingZeros(LANES);
+        mirror = new VectorShuffle[levels];
+        partner = new VectorShuffle[levels];
+        upper = new VectorMask[levels];
+        for (int level = 0; level < levels; level++) {
+            int j = 1 << level;
+            mirror[level] = VectorShuffle.fromOp(SPECIES, lane -> lane ^ (2 * j - 1));
+            partner[level] = VectorShuffle.fromOp(SPECIES, lane -> lane ^ j);
+            boolean[] bits = new boolean[LANES];
+            for (int lane = 0; lane < LANES; lane++) {
+                bits[lane] = (lane & j) != 0;
+            }
+            upper[level] = VectorMask.fromArray(SPECIES, bits, 0);
+        }
+    }
+
+    @Override
+    public String name() {
+        return SPECIES.toString();
+    }
+
+    @Override
+    public void sortBlock(int[] array, int from) {
+        for (int k = 2; k <= BitonicSorts.BLOCK; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                boolean first = j == k >> 1;
+                if (j >= LANES) {
+                    acrossVectors(array, from, k, j, first);
+                } else {
+                    int level = Integer.numberOfTrailingZeros(j);
+                    withinVectors(array, from, first ? mirror[level] : partner[level], upper[level]);
+                }
+            }
+        }
+    }
+
+    private static void acrossVectors(int[] array, int from, int k, int j, boolean first) {
+        for (int v = 0; v < BitonicSorts.BLOCK; v += LANES) {
+            if ((v & j) != 0) continue; // v is the upper side of its pairs
+            // The mirrored partners of lanes v, v + 1, ... run downwards from v ^ (k - 1)
+            int p = first ? (v ^ (k - 1)) - (LANES - 1) : v + j;
+            IntVector low = IntVector.fromArray(SPECIES, array, from + v);
+            IntVector high = IntVector.fromArray(SPECIES, array, from + p);
+            if (first) {
+                high = high.rearrange(REVERSE);
+            }
+            low.min(high).intoArray(array, from + v);
+            IntVector max = low.max(high);
+            (first ? max.rearrange(REVERSE) : max).intoArray(array, from + p);
+        }
+    }
+
+    private static void withinVectors(int[] array, int from, VectorShuffle<Integer> shuffle, VectorMask<Integer> upper) {
+        for (int v = 0; v < BitonicSorts.BLOCK; v += LANES) {
+            IntVector values = IntVector.fromArray(SPECIES, array, from + v);
+            IntVector partners = values.rearrange(shuffle);
+            values.min(partners).blend(values.max(partners), upper).intoArray(array, from + v);
+        }
+    }
+}